@@ -0,0 +1,91 @@
+package com.empresa.ferias.benchmark;
+
+import com.empresa.ferias.model.Role;
+import com.empresa.ferias.model.Usuario;
+import com.empresa.ferias.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração e validação de tokens. "validarTokenImplementacaoAnterior" reproduz o caminho
+ * antigo (chave e parser recriados, três parses por requisição) como linha de base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET =
+            "c2lzdGVtYS1mZXJpYXMtand0LXNlY3JldC1rZXktMjAyNC1zdXBlci1zZWd1cmEtcGFyYS1wcm9kdWNhby1taW5pbW8tNTEyLWJpdHM=";
+
+    private JwtService jwtService;
+    private JwtService jwtServiceSemCache;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = criarJwtService(TimeUnit.MINUTES.toMillis(5));
+        // TTL zero: toda validação verifica a assinatura novamente
+        jwtServiceSemCache = criarJwtService(0);
+
+        usuario = Usuario.builder()
+                .id(1L)
+                .email("benchmark@empresa.com")
+                .nomeCompleto("Benchmark")
+                .role(Role.USER)
+                .isAtivo(true)
+                .build();
+        token = jwtService.generateToken(usuario);
+    }
+
+    static JwtService criarJwtService(long ttlCache) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", TimeUnit.HOURS.toMillis(24));
+        ReflectionTestUtils.setField(service, "cacheTamanhoMaximo", 10_000L);
+        ReflectionTestUtils.setField(service, "cacheTtl", ttlCache);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return jwtService.generateToken(usuario);
+    }
+
+    @Benchmark
+    public Object validarTokenEmCache() {
+        return jwtService.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public Object validarTokenComVerificacao() {
+        return jwtServiceSemCache.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public boolean validarTokenImplementacaoAnterior() {
+        String email = parseImplementacaoAnterior(token).getSubject();
+        String emailNovamente = parseImplementacaoAnterior(token).getSubject();
+        return email.equals(emailNovamente)
+                && parseImplementacaoAnterior(token).getExpiration().getTime() > System.currentTimeMillis();
+    }
+
+    private static Claims parseImplementacaoAnterior(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
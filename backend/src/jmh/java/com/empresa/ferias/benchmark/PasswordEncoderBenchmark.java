@@ -0,0 +1,52 @@
+package com.empresa.ferias.benchmark;
+
+import com.empresa.ferias.config.SenhaProperties;
+import com.empresa.ferias.security.CodificadorSenhas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt no login. Roda com uma thread: o resultado em ops/s equivale a logins/s por núcleo.
+ * verificarSenhaNoPool passa pelo CodificadorSenhas (pool limitado + DelegatingPasswordEncoder);
+ * a diferença para verificarSenha é o custo da troca de thread, que deve ser desprezível perto do BCrypt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"8", "10", "12"})
+    private int forca;
+
+    private BCryptPasswordEncoder encoder;
+    private CodificadorSenhas codificador;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(forca);
+        hash = encoder.encode("123456");
+
+        SenhaProperties properties = new SenhaProperties();
+        properties.setForca(forca);
+        properties.setThreads(1);
+        codificador = new CodificadorSenhas(properties, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public boolean verificarSenha() {
+        return encoder.matches("123456", hash);
+    }
+
+    @Benchmark
+    public boolean verificarSenhaNoPool() {
+        return codificador.matches("123456", hash);
+    }
+}
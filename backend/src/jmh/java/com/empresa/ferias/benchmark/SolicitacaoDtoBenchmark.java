@@ -0,0 +1,43 @@
+package com.empresa.ferias.benchmark;
+
+import com.empresa.ferias.dto.SolicitacaoDTO;
+import com.empresa.ferias.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolicitacaoDtoBenchmark {
+
+    private Solicitacao solicitacao;
+
+    @Setup
+    public void setup() {
+        Usuario funcionario = Usuario.builder().id(1L).nomeCompleto("João Santos").email("joao@empresa.com").build();
+        Usuario gestor = Usuario.builder().id(2L).nomeCompleto("Gestor Principal").email("gestor@empresa.com").build();
+        TipoAusencia ferias = TipoAusencia.builder().id(1L).nome("Férias").corHex("#34D399").deduzSaldo(true).build();
+
+        solicitacao = Solicitacao.builder()
+                .id(10L)
+                .usuario(funcionario)
+                .tipoAusencia(ferias)
+                .dataInicio(LocalDate.of(2026, 7, 1))
+                .dataFim(LocalDate.of(2026, 7, 20))
+                .status(StatusSolicitacao.APROVADO)
+                .aprovador(gestor)
+                .dataAprovacao(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public SolicitacaoDTO fromEntity() {
+        return SolicitacaoDTO.fromEntity(solicitacao);
+    }
+}
@@ -0,0 +1,77 @@
+package com.empresa.ferias.benchmark;
+
+import com.empresa.ferias.SistemaFeriasApplication;
+import com.empresa.ferias.dto.SolicitacaoDTO;
+import com.empresa.ferias.dto.SolicitacaoRequest;
+import com.empresa.ferias.model.SaldoFerias;
+import com.empresa.ferias.model.Usuario;
+import com.empresa.ferias.repository.SaldoFeriasRepository;
+import com.empresa.ferias.repository.TipoAusenciaRepository;
+import com.empresa.ferias.repository.UsuarioRepository;
+import com.empresa.ferias.service.SolicitacaoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * criarSolicitacao completo (validações, conflitos, saldo e insert) contra o H2 do
+ * perfil "benchmark". Cada operação cria e cancela a mesma solicitação para que o
+ * período volte a ficar livre.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolicitacaoServiceBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private SolicitacaoService solicitacaoService;
+    private Long usuarioId;
+    private SolicitacaoRequest request;
+
+    @Setup
+    public void setup() {
+        contexto = new SpringApplicationBuilder(SistemaFeriasApplication.class)
+                .profiles("benchmark")
+                .run();
+
+        solicitacaoService = contexto.getBean(SolicitacaoService.class);
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        SaldoFeriasRepository saldoFeriasRepository = contexto.getBean(SaldoFeriasRepository.class);
+
+        Usuario usuario = usuarioRepository.findByEmail("joao@empresa.com").orElseThrow();
+        usuarioId = usuario.getId();
+
+        // Período no ano seguinte, sempre no futuro
+        int ano = Year.now().getValue() + 1;
+        saldoFeriasRepository.save(SaldoFerias.builder()
+                .usuario(usuario)
+                .anoReferencia(ano)
+                .diasTotais(30)
+                .diasUsados(0)
+                .build());
+
+        request = new SolicitacaoRequest();
+        request.setTipoAusenciaId(contexto.getBean(TipoAusenciaRepository.class)
+                .findByNome("Férias").orElseThrow().getId());
+        request.setDataInicio(LocalDate.of(ano, 3, 2));
+        request.setDataFim(LocalDate.of(ano, 3, 13));
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public SolicitacaoDTO criarECancelar() {
+        SolicitacaoDTO criada = solicitacaoService.criarSolicitacao(usuarioId, request);
+        return solicitacaoService.cancelar(criada.getId(), usuarioId);
+    }
+}
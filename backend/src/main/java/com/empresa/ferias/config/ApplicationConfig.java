@@ -1,9 +1,11 @@
 package com.empresa.ferias.config;
 
+import com.empresa.ferias.model.Usuario;
 import com.empresa.ferias.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -18,4 +20,16 @@ public class ApplicationConfig {
         return username -> usuarioRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
     }
+
+    // Chamado pelo DaoAuthenticationProvider após um login cujo hash precisa ser refeito
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (usuario, novoHash) -> {
+            usuarioRepository.atualizarSenhaHash(usuario.getUsername(), novoHash);
+            if (usuario instanceof Usuario entidade) {
+                entidade.setSenhaHash(novoHash);
+            }
+            return usuario;
+        };
+    }
 }
@@ -0,0 +1,48 @@
+package com.empresa.ferias.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor único para @Async e trabalho em segundo plano (emails, notificações,
+ * relatórios). Por padrão usa virtual threads; a concorrência com cada recurso
+ * externo é limitada pelo LimitadorConcorrencia, não pelo tamanho do pool.
+ */
+@Configuration
+@EnableConfigurationProperties(AsyncProperties.class)
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final AsyncProperties properties;
+
+    // Também usado pelo Spring MVC para respostas assíncronas (streaming, SSE)
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        if (properties.isVirtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(properties.getLimiteConcorrencia());
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolTamanho());
+        executor.setMaxPoolSize(properties.getPoolTamanho());
+        executor.setQueueCapacity(properties.getFilaCapacidade());
+        executor.setThreadNamePrefix("async-");
+        return executor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return applicationTaskExecutor();
+    }
+}
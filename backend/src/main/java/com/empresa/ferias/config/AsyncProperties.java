@@ -0,0 +1,25 @@
+package com.empresa.ferias.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.async")
+public class AsyncProperties {
+
+    // true: uma virtual thread por tarefa; false: pool de threads de plataforma
+    private boolean virtualThreads = true;
+
+    // Máximo de tarefas simultâneas no executor de virtual threads
+    private int limiteConcorrencia = 1000;
+
+    // Pool de plataforma (usado quando virtualThreads = false)
+    private int poolTamanho = 16;
+    private int filaCapacidade = 500;
+
+    // Máximo de chamadas simultâneas por recurso externo (ex.: smtp -> 4)
+    private Map<String, Integer> limites = new HashMap<>();
+}
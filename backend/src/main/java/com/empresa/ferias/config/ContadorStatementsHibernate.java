@@ -0,0 +1,26 @@
+package com.empresa.ferias.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os statements SQL preparados pelo Hibernate na thread atual.
+ * Zerado e lido pelo MetricasStatementsFilter a cada requisição.
+ */
+public class ContadorStatementsHibernate implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        CONTADOR.get()[0]++;
+        return sql;
+    }
+
+    public static void zerar() {
+        CONTADOR.get()[0] = 0;
+    }
+
+    public static int total() {
+        return CONTADOR.get()[0];
+    }
+}
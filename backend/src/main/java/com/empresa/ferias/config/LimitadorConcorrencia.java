@@ -0,0 +1,49 @@
+package com.empresa.ferias.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Semáforo por recurso externo (smtp, relatorios...), configurado em app.async.limites.
+ * Com virtual threads as tarefas são baratas; o que precisa de limite é o recurso.
+ * Recursos sem limite configurado executam sem restrição.
+ */
+@Component
+public class LimitadorConcorrencia {
+
+    private final Map<String, Semaphore> semaforos = new ConcurrentHashMap<>();
+    private final Map<String, Integer> limites;
+
+    public LimitadorConcorrencia(AsyncProperties properties) {
+        this.limites = Map.copyOf(properties.getLimites());
+        limites.forEach((recurso, limite) -> semaforos.put(recurso, new Semaphore(limite, true)));
+    }
+
+    public <T> T executar(String recurso, Supplier<T> tarefa) {
+        Semaphore semaforo = semaforos.get(recurso);
+        if (semaforo == null) {
+            return tarefa.get();
+        }
+        semaforo.acquireUninterruptibly();
+        try {
+            return tarefa.get();
+        } finally {
+            semaforo.release();
+        }
+    }
+
+    public void executar(String recurso, Runnable tarefa) {
+        executar(recurso, () -> {
+            tarefa.run();
+            return null;
+        });
+    }
+
+    public int limite(String recurso) {
+        return limites.getOrDefault(recurso, 1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.empresa.ferias.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Registra quantos statements SQL cada requisição executou (incluindo os da
+ * autenticação), por padrão de URI: métrica "hibernate.statements.requisicao".
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MetricasStatementsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        ContadorStatementsHibernate.zerar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("hibernate.statements.requisicao")
+                    .description("Statements SQL executados por requisição")
+                    .tag("method", request.getMethod())
+                    .tag("uri", padrao != null ? padrao.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(ContadorStatementsHibernate.total());
+        }
+    }
+}
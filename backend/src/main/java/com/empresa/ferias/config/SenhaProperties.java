@@ -0,0 +1,18 @@
+package com.empresa.ferias.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.senha")
+public class SenhaProperties {
+
+    // Fator de custo do BCrypt (4 a 31); hashes com outro fator são refeitos no próximo login
+    private int forca = 10;
+
+    // Threads que calculam BCrypt; 0 = número de núcleos
+    private int threads = 0;
+
+    // Verificações aguardando thread; além disso a requisição recebe 429
+    private int fila = 64;
+}
@@ -0,0 +1,27 @@
+package com.empresa.ferias.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.saldo.virada")
+public class ViradaSaldoProperties {
+
+    public enum PoliticaSobra {
+        // Dias não usados são perdidos
+        NENHUMA,
+        // Todos os dias não usados passam para o ano seguinte
+        INTEGRAL,
+        // Passam no máximo limiteSobra dias
+        LIMITADA
+    }
+
+    // Usuários por transação (e por lote JDBC)
+    private int tamanhoLote = 1000;
+
+    private int diasPadrao = 30;
+
+    private PoliticaSobra politicaSobra = PoliticaSobra.NENHUMA;
+
+    private int limiteSobra = 10;
+}
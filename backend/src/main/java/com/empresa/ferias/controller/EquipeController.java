@@ -1,13 +1,17 @@
 package com.empresa.ferias.controller;
 
+import com.empresa.ferias.dto.CalendarioEquipeDTO;
 import com.empresa.ferias.dto.EquipeDTO;
-import com.empresa.ferias.model.Usuario;
+import com.empresa.ferias.security.AuthenticatedUser;
+import com.empresa.ferias.service.CalendarioEquipeService;
 import com.empresa.ferias.service.EquipeService;
+import com.empresa.ferias.service.VersoesRecursos;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -18,6 +22,8 @@ import java.util.Map;
 public class EquipeController {
 
     private final EquipeService equipeService;
+    private final CalendarioEquipeService calendarioEquipeService;
+    private final VersoesRecursos versoesRecursos;
 
     @GetMapping
     @PreAuthorize("hasAnyRole('RH', 'ADMIN')")
@@ -30,15 +36,25 @@ public class EquipeController {
         return ResponseEntity.ok(equipeService.buscarPorId(id));
     }
 
+    @GetMapping("/{id}/calendario/{ano}")
+    public ResponseEntity<CalendarioEquipeDTO> calendario(
+            @PathVariable Long id,
+            @PathVariable int ano,
+            @AuthenticationPrincipal AuthenticatedUser usuario
+    ) {
+        return ResponseEntity.ok(calendarioEquipeService.buscar(id, ano, usuario.id()));
+    }
+
     @GetMapping("/minhas")
-    public ResponseEntity<List<EquipeDTO>> minhasEquipes(@AuthenticationPrincipal Usuario usuario) {
-        return ResponseEntity.ok(equipeService.listarEquipesDoUsuario(usuario.getId()));
+    public ResponseEntity<List<EquipeDTO>> minhasEquipes(@AuthenticationPrincipal AuthenticatedUser usuario, WebRequest request) {
+        return RespostaCondicional.comEtag(request, versoesRecursos.etagUsuario(usuario.id()),
+                () -> equipeService.listarEquipesDoUsuario(usuario.id()));
     }
 
     @GetMapping("/gerenciadas")
     @PreAuthorize("hasAnyRole('GESTOR', 'RH', 'ADMIN')")
-    public ResponseEntity<List<EquipeDTO>> equipesGerenciadas(@AuthenticationPrincipal Usuario usuario) {
-        return ResponseEntity.ok(equipeService.listarEquipesDoGestor(usuario.getId()));
+    public ResponseEntity<List<EquipeDTO>> equipesGerenciadas(@AuthenticationPrincipal AuthenticatedUser usuario) {
+        return ResponseEntity.ok(equipeService.listarEquipesDoGestor(usuario.id()));
     }
 
     @PostMapping
@@ -50,6 +66,15 @@ public class EquipeController {
         return ResponseEntity.ok(equipeService.criar(nome, descricao, gestorId));
     }
 
+    @PatchMapping("/{id}/max-ausentes")
+    @PreAuthorize("hasAnyRole('GESTOR', 'RH', 'ADMIN')")
+    public ResponseEntity<EquipeDTO> definirMaxAusentes(
+            @PathVariable Long id,
+            @RequestBody Map<String, Integer> body
+    ) {
+        return ResponseEntity.ok(equipeService.definirMaxAusentesPorDia(id, body.get("maxAusentesPorDia")));
+    }
+
     @PostMapping("/{id}/membros")
     @PreAuthorize("hasAnyRole('GESTOR', 'RH', 'ADMIN')")
     public ResponseEntity<EquipeDTO> adicionarMembro(
@@ -0,0 +1,26 @@
+package com.empresa.ferias.controller;
+
+import com.empresa.ferias.dto.ResultadoImportacaoDTO;
+import com.empresa.ferias.service.ImportacaoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/importacao")
+@RequiredArgsConstructor
+public class ImportacaoController {
+
+    private final ImportacaoService importacaoService;
+
+    // Corpo lido como stream: o arquivo não é carregado inteiro em memória
+    @PostMapping(consumes = {"application/x-ndjson", "application/jsonl"})
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<ResultadoImportacaoDTO> importar(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(importacaoService.importar(corpo));
+    }
+}
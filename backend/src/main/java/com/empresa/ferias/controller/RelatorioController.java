@@ -0,0 +1,28 @@
+package com.empresa.ferias.controller;
+
+import com.empresa.ferias.dto.RelatorioAusenciasDTO;
+import com.empresa.ferias.security.AuthenticatedUser;
+import com.empresa.ferias.service.RelatorioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/relatorios")
+@RequiredArgsConstructor
+public class RelatorioController {
+
+    private final RelatorioService relatorioService;
+
+    @GetMapping("/ausencias")
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<RelatorioAusenciasDTO> ausencias(
+            @RequestParam Long equipeId,
+            @RequestParam int ano,
+            @AuthenticationPrincipal AuthenticatedUser usuario
+    ) {
+        return ResponseEntity.ok(relatorioService.ausenciasPorMes(equipeId, ano, usuario.id()));
+    }
+}
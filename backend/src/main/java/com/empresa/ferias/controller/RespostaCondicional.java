@@ -0,0 +1,46 @@
+package com.empresa.ferias.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * GET condicional por ETag: se o If-None-Match bater, responde 304 sem
+ * executar a consulta nem serializar o corpo.
+ */
+final class RespostaCondicional {
+
+    // no-cache (e não no-store): o navegador guarda a resposta, mas revalida sempre
+    private static final CacheControl CACHE = CacheControl.noCache().cachePrivate();
+
+    private RespostaCondicional() {
+    }
+
+    static <T> ResponseEntity<T> comEtag(WebRequest request, String etag, Supplier<T> corpo) {
+        if (corresponde(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE).body(corpo.get());
+    }
+
+    // If-None-Match usa comparação fraca: ignora o prefixo W/
+    private static boolean corresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,16 +1,33 @@
 package com.empresa.ferias.controller;
 
+import com.empresa.ferias.dto.FiltroSolicitacoes;
+import com.empresa.ferias.dto.LoteSolicitacoesRequest;
+import com.empresa.ferias.dto.PaginaDTO;
+import com.empresa.ferias.dto.ResultadoLoteDTO;
 import com.empresa.ferias.dto.SolicitacaoDTO;
 import com.empresa.ferias.dto.SolicitacaoRequest;
-import com.empresa.ferias.model.Usuario;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.empresa.ferias.security.AuthenticatedUser;
+import com.empresa.ferias.service.EventosAprovacaoService;
+import com.empresa.ferias.service.ExportacaoService;
 import com.empresa.ferias.service.SolicitacaoService;
+import com.empresa.ferias.service.VersoesRecursos;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.Year;
 import java.util.List;
 import java.util.Map;
@@ -21,72 +38,188 @@ import java.util.Map;
 public class SolicitacaoController {
 
     private final SolicitacaoService solicitacaoService;
+    private final EventosAprovacaoService eventosAprovacaoService;
+    private final ExportacaoService exportacaoService;
+    private final VersoesRecursos versoesRecursos;
 
     @PostMapping
     public ResponseEntity<SolicitacaoDTO> criar(
-            @AuthenticationPrincipal Usuario usuario,
+            @AuthenticationPrincipal AuthenticatedUser usuario,
             @Valid @RequestBody SolicitacaoRequest request
     ) {
-        return ResponseEntity.ok(solicitacaoService.criarSolicitacao(usuario.getId(), request));
+        return ResponseEntity.ok(solicitacaoService.criarSolicitacao(usuario.id(), request));
     }
 
     @GetMapping("/minhas")
-    public ResponseEntity<List<SolicitacaoDTO>> listarMinhas(@AuthenticationPrincipal Usuario usuario) {
-        return ResponseEntity.ok(solicitacaoService.listarMinhasSolicitacoes(usuario.getId()));
+    public ResponseEntity<List<SolicitacaoDTO>> listarMinhas(@AuthenticationPrincipal AuthenticatedUser usuario, WebRequest request) {
+        return RespostaCondicional.comEtag(request, versoesRecursos.etagUsuario(usuario.id()),
+                () -> solicitacaoService.listarMinhasSolicitacoes(usuario.id()));
     }
 
     @GetMapping("/minhas/ano/{ano}")
     public ResponseEntity<List<SolicitacaoDTO>> listarMinhasPorAno(
-            @AuthenticationPrincipal Usuario usuario,
-            @PathVariable int ano
+            @AuthenticationPrincipal AuthenticatedUser usuario,
+            @PathVariable int ano,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(solicitacaoService.listarMinhasSolicitacoesPorAno(usuario.getId(), ano));
+        return RespostaCondicional.comEtag(request, versoesRecursos.etagUsuario(usuario.id()),
+                () -> solicitacaoService.listarMinhasSolicitacoesPorAno(usuario.id(), ano));
     }
 
     @GetMapping("/minhas/ano-atual")
-    public ResponseEntity<List<SolicitacaoDTO>> listarMinhasAnoAtual(@AuthenticationPrincipal Usuario usuario) {
+    public ResponseEntity<List<SolicitacaoDTO>> listarMinhasAnoAtual(@AuthenticationPrincipal AuthenticatedUser usuario) {
         return ResponseEntity.ok(
-                solicitacaoService.listarMinhasSolicitacoesPorAno(usuario.getId(), Year.now().getValue())
+                solicitacaoService.listarMinhasSolicitacoesPorAno(usuario.id(), Year.now().getValue())
         );
     }
 
+    @GetMapping("/dias-uteis")
+    public ResponseEntity<Map<String, Integer>> contarDiasUteis(
+            @AuthenticationPrincipal AuthenticatedUser usuario,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim
+    ) {
+        return ResponseEntity.ok(Map.of("diasUteis", solicitacaoService.contarDiasUteis(usuario.id(), inicio, fim)));
+    }
+
     @GetMapping("/equipe/pendentes")
     @PreAuthorize("hasRole('GESTOR')")
-    public ResponseEntity<List<SolicitacaoDTO>> listarPendentes(@AuthenticationPrincipal Usuario usuario) {
-        return ResponseEntity.ok(solicitacaoService.listarTodasPendentes());
+    public ResponseEntity<List<SolicitacaoDTO>> listarPendentes(@AuthenticationPrincipal AuthenticatedUser usuario) {
+        return ResponseEntity.ok(solicitacaoService.listarPendentesDoGestor(usuario.id()));
+    }
+
+    @GetMapping(value = "/equipe/pendentes/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('GESTOR')")
+    public SseEmitter eventosPendentes(@AuthenticationPrincipal AuthenticatedUser usuario) {
+        return eventosAprovacaoService.inscrever(usuario.id());
     }
 
     @GetMapping("/equipe")
     @PreAuthorize("hasRole('GESTOR')")
-    public ResponseEntity<List<SolicitacaoDTO>> listarTodas(@AuthenticationPrincipal Usuario usuario) {
-        return ResponseEntity.ok(solicitacaoService.listarTodasSolicitacoes());
+    public ResponseEntity<List<SolicitacaoDTO>> listarTodas(@AuthenticationPrincipal AuthenticatedUser usuario) {
+        return ResponseEntity.ok(solicitacaoService.listarSolicitacoesDoGestor(usuario.id()));
+    }
+
+    @GetMapping("/equipe/pagina")
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<PaginaDTO<SolicitacaoDTO>> listarPagina(
+            @AuthenticationPrincipal AuthenticatedUser usuario,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limite,
+            @RequestParam(required = false) StatusSolicitacao status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) Long equipeId
+    ) {
+        FiltroSolicitacoes filtro = FiltroSolicitacoes.builder()
+                .status(status)
+                .inicio(inicio)
+                .fim(fim)
+                .equipeId(equipeId)
+                .gestorId(usuario.id())
+                .build();
+        return ResponseEntity.ok(solicitacaoService.listarPagina(cursor, limite, filtro));
+    }
+
+    @GetMapping("/equipe/stream")
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<StreamingResponseBody> streamTodas(
+            @AuthenticationPrincipal AuthenticatedUser usuario,
+            @RequestParam(required = false) StatusSolicitacao status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) Long equipeId
+    ) {
+        FiltroSolicitacoes filtro = FiltroSolicitacoes.builder()
+                .status(status)
+                .inicio(inicio)
+                .fim(fim)
+                .equipeId(equipeId)
+                .gestorId(usuario.id())
+                .build();
+        StreamingResponseBody corpo = out -> solicitacaoService.escreverSolicitacoesJson(filtro, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(corpo);
+    }
+
+    // Exportação para a folha: CSV ou XLSX em streaming, aprovadas por padrão
+    @GetMapping("/equipe/exportar")
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @AuthenticationPrincipal AuthenticatedUser usuario,
+            @RequestParam(defaultValue = "CSV") ExportacaoService.Formato formato,
+            @RequestParam(defaultValue = "APROVADO") StatusSolicitacao status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) Long equipeId,
+            @RequestParam(required = false) Long tipoAusenciaId
+    ) {
+        FiltroSolicitacoes filtro = FiltroSolicitacoes.builder()
+                .status(status)
+                .inicio(inicio)
+                .fim(fim)
+                .equipeId(equipeId)
+                .tipoAusenciaId(tipoAusenciaId)
+                .gestorId(usuario.id())
+                .build();
+
+        boolean xlsx = formato == ExportacaoService.Formato.XLSX;
+        String arquivo = "ausencias" + (inicio != null ? "-" + inicio : "") + (fim != null ? "-" + fim : "")
+                + (xlsx ? ".xlsx" : ".csv");
+        StreamingResponseBody corpo = out -> exportacaoService.exportar(filtro, formato, out);
+        return ResponseEntity.ok()
+                .contentType(xlsx
+                        ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                        : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(arquivo).build().toString())
+                .body(corpo);
     }
 
     @PostMapping("/{id}/aprovar")
     @PreAuthorize("hasRole('GESTOR')")
     public ResponseEntity<SolicitacaoDTO> aprovar(
             @PathVariable Long id,
-            @AuthenticationPrincipal Usuario usuario
+            @AuthenticationPrincipal AuthenticatedUser usuario
     ) {
-        return ResponseEntity.ok(solicitacaoService.aprovar(id, usuario.getId()));
+        return ResponseEntity.ok(solicitacaoService.aprovar(id, usuario.id()));
     }
 
     @PostMapping("/{id}/rejeitar")
     @PreAuthorize("hasRole('GESTOR')")
     public ResponseEntity<SolicitacaoDTO> rejeitar(
             @PathVariable Long id,
-            @AuthenticationPrincipal Usuario usuario,
+            @AuthenticationPrincipal AuthenticatedUser usuario,
             @RequestBody Map<String, String> body
     ) {
         String motivo = body.get("motivo");
-        return ResponseEntity.ok(solicitacaoService.rejeitar(id, usuario.getId(), motivo));
+        return ResponseEntity.ok(solicitacaoService.rejeitar(id, usuario.id(), motivo));
+    }
+
+    @PostMapping("/aprovar-lote")
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<ResultadoLoteDTO> aprovarLote(
+            @AuthenticationPrincipal AuthenticatedUser usuario,
+            @Valid @RequestBody LoteSolicitacoesRequest request
+    ) {
+        return ResponseEntity.ok(solicitacaoService.aprovarLote(request.getIds(), usuario.id()));
+    }
+
+    @PostMapping("/rejeitar-lote")
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<ResultadoLoteDTO> rejeitarLote(
+            @AuthenticationPrincipal AuthenticatedUser usuario,
+            @Valid @RequestBody LoteSolicitacoesRequest request
+    ) {
+        return ResponseEntity.ok(solicitacaoService.rejeitarLote(request.getIds(), usuario.id(), request.getMotivo()));
     }
 
     @PostMapping("/{id}/cancelar")
     public ResponseEntity<SolicitacaoDTO> cancelar(
             @PathVariable Long id,
-            @AuthenticationPrincipal Usuario usuario
+            @AuthenticationPrincipal AuthenticatedUser usuario
     ) {
-        return ResponseEntity.ok(solicitacaoService.cancelar(id, usuario.getId()));
+        return ResponseEntity.ok(solicitacaoService.cancelar(id, usuario.id()));
     }
 }
@@ -2,10 +2,12 @@ package com.empresa.ferias.controller;
 
 import com.empresa.ferias.model.TipoAusencia;
 import com.empresa.ferias.service.TipoAusenciaService;
+import com.empresa.ferias.service.VersoesRecursos;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -16,10 +18,11 @@ import java.util.Map;
 public class TipoAusenciaController {
 
     private final TipoAusenciaService tipoAusenciaService;
+    private final VersoesRecursos versoesRecursos;
 
     @GetMapping
-    public ResponseEntity<List<TipoAusencia>> listarAtivos() {
-        return ResponseEntity.ok(tipoAusenciaService.listarAtivos());
+    public ResponseEntity<List<TipoAusencia>> listarAtivos(WebRequest request) {
+        return RespostaCondicional.comEtag(request, versoesRecursos.etagTipos(), tipoAusenciaService::listarAtivos);
     }
 
     @GetMapping("/todos")
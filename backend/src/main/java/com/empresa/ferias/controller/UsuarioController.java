@@ -4,13 +4,17 @@ import com.empresa.ferias.dto.SaldoFeriasDTO;
 import com.empresa.ferias.dto.UpdateUsuarioRequest;
 import com.empresa.ferias.dto.UsuarioDTO;
 import com.empresa.ferias.model.Role;
-import com.empresa.ferias.model.Usuario;
+import com.empresa.ferias.model.ViradaSaldo;
+import com.empresa.ferias.security.AuthenticatedUser;
 import com.empresa.ferias.service.UsuarioService;
+import com.empresa.ferias.service.VersoesRecursos;
+import com.empresa.ferias.service.ViradaSaldoService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -21,30 +25,35 @@ import java.util.Map;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final VersoesRecursos versoesRecursos;
+    private final ViradaSaldoService viradaSaldoService;
 
     // ---- Endpoints do próprio usuário ----
 
     @GetMapping("/me")
-    public ResponseEntity<UsuarioDTO> perfilAtual(@AuthenticationPrincipal Usuario usuario) {
-        return ResponseEntity.ok(UsuarioDTO.fromEntity(usuario));
+    public ResponseEntity<UsuarioDTO> perfilAtual(@AuthenticationPrincipal AuthenticatedUser usuario) {
+        return ResponseEntity.ok(usuarioService.buscarPorId(usuario.id()));
     }
 
     @GetMapping("/me/saldo")
-    public ResponseEntity<SaldoFeriasDTO> saldoAtual(@AuthenticationPrincipal Usuario usuario) {
-        return ResponseEntity.ok(usuarioService.buscarSaldoAtual(usuario.getId()));
+    public ResponseEntity<SaldoFeriasDTO> saldoAtual(@AuthenticationPrincipal AuthenticatedUser usuario) {
+        return ResponseEntity.ok(usuarioService.buscarSaldoAtual(usuario.id()));
     }
 
     @GetMapping("/me/saldo/{ano}")
     public ResponseEntity<SaldoFeriasDTO> saldoPorAno(
-            @AuthenticationPrincipal Usuario usuario,
-            @PathVariable int ano
+            @AuthenticationPrincipal AuthenticatedUser usuario,
+            @PathVariable int ano,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(usuarioService.buscarSaldoPorAno(usuario.getId(), ano));
+        return RespostaCondicional.comEtag(request, versoesRecursos.etagUsuario(usuario.id()),
+                () -> usuarioService.buscarSaldoPorAno(usuario.id(), ano));
     }
 
     @GetMapping("/me/saldos")
-    public ResponseEntity<List<SaldoFeriasDTO>> todosSaldos(@AuthenticationPrincipal Usuario usuario) {
-        return ResponseEntity.ok(usuarioService.listarTodosSaldos(usuario.getId()));
+    public ResponseEntity<List<SaldoFeriasDTO>> todosSaldos(@AuthenticationPrincipal AuthenticatedUser usuario, WebRequest request) {
+        return RespostaCondicional.comEtag(request, versoesRecursos.etagUsuario(usuario.id()),
+                () -> usuarioService.listarTodosSaldos(usuario.id()));
     }
 
     // ---- Endpoints de gestão (GESTOR) ----
@@ -129,6 +138,20 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarioService.ajustarSaldo(id, ano, diasTotais));
     }
 
+    // Cria (ou retoma a criação dos) saldos do ano informado; normalmente roda agendada
+    @PostMapping("/saldos/{ano}/virada")
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<ViradaSaldo> executarVirada(@PathVariable int ano) {
+        return ResponseEntity.ok(viradaSaldoService.executar(ano));
+    }
+
+    // Transfere as sobras do ano anterior para o ano informado, depois que aquele terminou
+    @PostMapping("/saldos/{ano}/virada/transferencia")
+    @PreAuthorize("hasRole('GESTOR')")
+    public ResponseEntity<ViradaSaldo> transferirSobras(@PathVariable int ano) {
+        return ResponseEntity.ok(viradaSaldoService.transferir(ano));
+    }
+
     @GetMapping("/saldos/{ano}")
     @PreAuthorize("hasRole('GESTOR')")
     public ResponseEntity<List<SaldoFeriasDTO>> listarSaldosPorAno(@PathVariable int ano) {
@@ -0,0 +1,32 @@
+package com.empresa.ferias.dto;
+
+import com.empresa.ferias.model.StatusSolicitacao;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Ocupação diária de uma equipe em um ano. Cada faixa agrupa as ausências de
+ * um usuário por tipo e status; {@code periodos} traz pares [início, fim]
+ * consecutivos de dias do ano (1 = 1º de janeiro), com fim inclusivo.
+ */
+@Data
+@Builder
+public class CalendarioEquipeDTO {
+
+    private Long equipeId;
+    private int ano;
+    private int diasNoAno;
+    private List<Faixa> faixas;
+
+    @Data
+    @Builder
+    public static class Faixa {
+
+        private Long usuarioId;
+        private Long tipoAusenciaId;
+        private StatusSolicitacao status;
+        private int[] periodos;
+    }
+}
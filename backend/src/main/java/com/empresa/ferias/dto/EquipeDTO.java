@@ -16,6 +16,7 @@ public class EquipeDTO {
     private String descricao;
     private Long gestorId;
     private String gestorNome;
+    private Integer maxAusentesPorDia;
     private List<UsuarioDTO> membros;
 
     public static EquipeDTO fromEntity(Equipe equipe) {
@@ -25,6 +26,7 @@ public class EquipeDTO {
                 .descricao(equipe.getDescricao())
                 .gestorId(equipe.getGestor() != null ? equipe.getGestor().getId() : null)
                 .gestorNome(equipe.getGestor() != null ? equipe.getGestor().getNomeCompleto() : null)
+                .maxAusentesPorDia(equipe.getMaxAusentesPorDia())
                 .membros(equipe.getMembros().stream()
                         .map(UsuarioDTO::fromEntity)
                         .collect(Collectors.toList()))
@@ -38,6 +40,7 @@ public class EquipeDTO {
                 .descricao(equipe.getDescricao())
                 .gestorId(equipe.getGestor() != null ? equipe.getGestor().getId() : null)
                 .gestorNome(equipe.getGestor() != null ? equipe.getGestor().getNomeCompleto() : null)
+                .maxAusentesPorDia(equipe.getMaxAusentesPorDia())
                 .build();
     }
 }
@@ -0,0 +1,18 @@
+package com.empresa.ferias.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Delta enviado por SSE aos gestores conectados: o cliente aplica a mudança
+ * na lista de pendentes em vez de buscá-la novamente.
+ */
+@Data
+@AllArgsConstructor
+public class EventoSolicitacaoDTO {
+
+    public enum Tipo { CRIADA, APROVADA, REJEITADA, CANCELADA }
+
+    private Tipo tipo;
+    private SolicitacaoDTO solicitacao;
+}
@@ -0,0 +1,22 @@
+package com.empresa.ferias.dto;
+
+import com.empresa.ferias.model.StatusSolicitacao;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class FiltroSolicitacoes {
+
+    private StatusSolicitacao status;
+    // Período: retorna solicitações que se sobrepõem a [inicio, fim]
+    private LocalDate inicio;
+    private LocalDate fim;
+    private Long equipeId;
+    // Usado só na exportação
+    private Long tipoAusenciaId;
+    // Restringe aos membros das equipes deste gestor
+    private Long gestorId;
+}
@@ -0,0 +1,18 @@
+package com.empresa.ferias.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LoteSolicitacoesRequest {
+
+    @NotEmpty(message = "Informe ao menos uma solicitação")
+    @Size(max = 500, message = "Máximo de 500 solicitações por lote")
+    private List<Long> ids;
+
+    // Usado apenas na rejeição em lote
+    private String motivo;
+}
@@ -0,0 +1,16 @@
+package com.empresa.ferias.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PaginaDTO<T> {
+
+    private List<T> itens;
+    // Valor a ser enviado como "cursor" para buscar a próxima página (null na última)
+    private Long proximoCursor;
+    private boolean temMais;
+}
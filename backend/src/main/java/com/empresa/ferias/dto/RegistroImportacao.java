@@ -0,0 +1,52 @@
+package com.empresa.ferias.dto;
+
+import com.empresa.ferias.model.Role;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Uma linha do arquivo NDJSON de importação. O campo {@code tipo} define quais
+ * dos demais campos são usados:
+ * <ul>
+ *   <li>usuario: email, nomeCompleto, senhaHash (BCrypt), cargo, dataAdmissao, role, regiao, ativo</li>
+ *   <li>membro: email, equipe (nome)</li>
+ *   <li>saldo: email, ano, diasTotais, diasUsados</li>
+ *   <li>solicitacao: email, tipoAusencia (nome), dataInicio, dataFim, status, observacao</li>
+ * </ul>
+ */
+@Data
+public class RegistroImportacao {
+
+    public enum Tipo {
+        @JsonProperty("usuario") USUARIO,
+        @JsonProperty("membro") MEMBRO,
+        @JsonProperty("saldo") SALDO,
+        @JsonProperty("solicitacao") SOLICITACAO
+    }
+
+    private Tipo tipo;
+    private String email;
+
+    private String nomeCompleto;
+    private String senhaHash;
+    private String cargo;
+    private LocalDate dataAdmissao;
+    private Role role;
+    private String regiao;
+    private Boolean ativo;
+
+    private String equipe;
+
+    private Integer ano;
+    private Integer diasTotais;
+    private Integer diasUsados;
+
+    private String tipoAusencia;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private StatusSolicitacao status;
+    private String observacao;
+}
@@ -0,0 +1,34 @@
+package com.empresa.ferias.dto;
+
+import com.empresa.ferias.model.StatusSolicitacao;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Dias de ausência de uma equipe no ano, agregados por mês, tipo e status.
+ * Nomes e cores dos tipos vêm de /api/tipos-ausencia.
+ */
+@Data
+@Builder
+public class RelatorioAusenciasDTO {
+
+    private Long equipeId;
+    private int ano;
+    private List<Linha> linhas;
+
+    @Data
+    @AllArgsConstructor
+    public static class Linha {
+
+        private int mes;
+        private Long tipoAusenciaId;
+        private StatusSolicitacao status;
+        // Soma dos dias de ausência (um dia por pessoa)
+        private long dias;
+        // Pessoas distintas com ausência no mês
+        private long usuarios;
+    }
+}
@@ -0,0 +1,27 @@
+package com.empresa.ferias.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ResultadoImportacaoDTO {
+
+    private int linhasLidas;
+    private int importados;
+    private int comErro;
+    private List<ErroLinha> erros;
+    // Erros além do limite de app.importacao.maximo-erros são só contados
+    private boolean errosTruncados;
+
+    @Data
+    @AllArgsConstructor
+    public static class ErroLinha {
+
+        private int linha;
+        private String mensagem;
+    }
+}
@@ -0,0 +1,41 @@
+package com.empresa.ferias.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ResultadoLoteDTO {
+
+    private int processadas;
+    private int falhas;
+    private List<Item> itens;
+
+    @Data
+    @Builder
+    public static class Item {
+
+        private Long id;
+        private boolean sucesso;
+        private String mensagem;
+        private SolicitacaoDTO solicitacao;
+
+        public static Item sucesso(SolicitacaoDTO solicitacao) {
+            return Item.builder()
+                    .id(solicitacao.getId())
+                    .sucesso(true)
+                    .solicitacao(solicitacao)
+                    .build();
+        }
+
+        public static Item falha(Long id, String mensagem) {
+            return Item.builder()
+                    .id(id)
+                    .sucesso(false)
+                    .mensagem(mensagem)
+                    .build();
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class SaldoFeriasDTO {
     private Integer anoReferencia;
     private Integer diasTotais;
     private Integer diasUsados;
+    private Integer diasTransferidos;
     private Integer diasDisponiveis;
 
     public static SaldoFeriasDTO fromEntity(SaldoFerias saldo) {
@@ -24,6 +25,7 @@ public class SaldoFeriasDTO {
                 .anoReferencia(saldo.getAnoReferencia())
                 .diasTotais(saldo.getDiasTotais())
                 .diasUsados(saldo.getDiasUsados())
+                .diasTransferidos(saldo.getDiasTransferidos())
                 .diasDisponiveis(saldo.getDiasDisponiveis())
                 .build();
     }
@@ -2,6 +2,7 @@ package com.empresa.ferias.dto;
 
 import com.empresa.ferias.model.Solicitacao;
 import com.empresa.ferias.model.StatusSolicitacao;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class SolicitacaoDTO {
 
     private Long id;
@@ -28,6 +30,17 @@ public class SolicitacaoDTO {
     private LocalDateTime dataAprovacao;
     private LocalDateTime createdAt;
 
+    // Usado pelas projeções "SELECT new" do SolicitacaoRepository (uma única query, sem lazy loading)
+    public SolicitacaoDTO(Long id, Long usuarioId, String usuarioNome,
+                          Long tipoAusenciaId, String tipoAusenciaNome, String tipoAusenciaCor,
+                          LocalDate dataInicio, LocalDate dataFim, Integer diasUteis, StatusSolicitacao status,
+                          String observacao, String motivoRejeicao, String aprovadorNome,
+                          LocalDateTime dataAprovacao, LocalDateTime createdAt) {
+        this(id, usuarioId, usuarioNome, tipoAusenciaId, tipoAusenciaNome, tipoAusenciaCor,
+                dataInicio, dataFim, Solicitacao.calcularDiasTotal(diasUteis, dataInicio, dataFim), status,
+                observacao, motivoRejeicao, aprovadorNome, dataAprovacao, createdAt);
+    }
+
     public static SolicitacaoDTO fromEntity(Solicitacao solicitacao) {
         return SolicitacaoDTO.builder()
                 .id(solicitacao.getId())
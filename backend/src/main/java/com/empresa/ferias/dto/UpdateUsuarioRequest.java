@@ -9,5 +9,6 @@ public class UpdateUsuarioRequest {
     private String nomeCompleto;
     private String email;
     private String cargo;
+    private String regiao;
     private LocalDate dataAdmissao;
 }
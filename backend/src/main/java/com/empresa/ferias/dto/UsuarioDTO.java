@@ -15,6 +15,7 @@ public class UsuarioDTO {
     private String nomeCompleto;
     private String email;
     private String cargo;
+    private String regiao;
     private LocalDate dataAdmissao;
     private Role role;
     private Boolean isAtivo;
@@ -25,6 +26,7 @@ public class UsuarioDTO {
                 .nomeCompleto(usuario.getNomeCompleto())
                 .email(usuario.getEmail())
                 .cargo(usuario.getCargo())
+                .regiao(usuario.getRegiao())
                 .dataAdmissao(usuario.getDataAdmissao())
                 .role(usuario.getRole())
                 .isAtivo(usuario.getIsAtivo())
@@ -0,0 +1,20 @@
+package com.empresa.ferias.event;
+
+import com.empresa.ferias.dto.SolicitacaoDTO;
+import com.empresa.ferias.model.StatusSolicitacao;
+import lombok.Value;
+
+/**
+ * Publicado pelo SolicitacaoService a cada criação ou mudança de status.
+ * statusAnterior é null quando a solicitação acabou de ser criada.
+ */
+@Value
+public class SolicitacaoAlteradaEvent {
+
+    SolicitacaoDTO solicitacao;
+    StatusSolicitacao statusAnterior;
+
+    public static SolicitacaoAlteradaEvent criada(SolicitacaoDTO solicitacao) {
+        return new SolicitacaoAlteradaEvent(solicitacao, null);
+    }
+}
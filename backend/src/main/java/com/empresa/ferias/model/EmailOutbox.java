@@ -0,0 +1,63 @@
+package com.empresa.ferias.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email gravado na mesma transação da operação de negócio e enviado depois
+ * pelo EmailOutboxWorker (padrão transactional outbox).
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_proxima", columnList = "status, proxima_tentativa")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    // Sequence (e não IDENTITY) para permitir inserts em lote via JDBC batching
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    // Tipo da notificação (confirmacao, solicitacao, aprovacao...), usado nas métricas
+    @Column(nullable = false)
+    private String tipo;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String corpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private StatusEmail status = StatusEmail.PENDENTE;
+
+    @Builder.Default
+    private Integer tentativas = 0;
+
+    // Próxima tentativa (PENDENTE) ou fim da reserva pelo worker (ENVIANDO)
+    @Column(name = "proxima_tentativa", nullable = false)
+    @Builder.Default
+    private LocalDateTime proximaTentativa = LocalDateTime.now();
+
+    @Column(name = "ultimo_erro", length = 1000)
+    private String ultimoErro;
+
+    @Column(name = "created_at")
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "enviado_em")
+    private LocalDateTime enviadoEm;
+}
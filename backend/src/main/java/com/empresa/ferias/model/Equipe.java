@@ -8,7 +8,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "equipes")
+@Table(name = "equipes", indexes = {
+    @Index(name = "idx_equipes_gestor", columnList = "gestor_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -34,11 +36,17 @@ public class Equipe {
     @JoinTable(
         name = "membros_equipe",
         joinColumns = @JoinColumn(name = "equipe_id"),
-        inverseJoinColumns = @JoinColumn(name = "usuario_id")
+        inverseJoinColumns = @JoinColumn(name = "usuario_id"),
+        // A PK (equipe_id, usuario_id) não atende buscas pelo usuário
+        indexes = @Index(name = "idx_membros_equipe_usuario", columnList = "usuario_id")
     )
     @Builder.Default
     private Set<Usuario> membros = new HashSet<>();
 
+    // Cobertura mínima: máximo de membros ausentes no mesmo dia (null = sem limite)
+    @Column(name = "max_ausentes_por_dia")
+    private Integer maxAusentesPorDia;
+
     @Column(name = "created_at")
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
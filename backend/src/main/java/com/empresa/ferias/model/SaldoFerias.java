@@ -32,6 +32,17 @@ public class SaldoFerias {
     @Builder.Default
     private Integer diasUsados = 0;
 
+    // Dias que vieram do ano anterior na virada de saldos (já incluídos em diasTotais)
+    @Column(name = "dias_transferidos", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer diasTransferidos = 0;
+
+    // Protege ajustes feitos via entidade (ex.: dias totais) contra escrita concorrente;
+    // os UPDATEs atômicos do repositório também incrementam a versão
+    @Version
+    @Column(name = "versao", nullable = false, columnDefinition = "bigint default 0")
+    private Long versao;
+
     public Integer getDiasDisponiveis() {
         return diasTotais - diasUsados;
     }
@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "solicitacoes")
+@Table(name = "solicitacoes", indexes = {
+    @Index(name = "idx_solicitacoes_usuario_periodo", columnList = "usuario_id, data_inicio, data_fim"),
+    @Index(name = "idx_solicitacoes_status_inicio", columnList = "status, data_inicio")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -33,6 +36,10 @@ public class Solicitacao {
     @Column(name = "data_fim", nullable = false)
     private LocalDate dataFim;
 
+    // Dias úteis do período, calculados na criação com o calendário da região do usuário
+    @Column(name = "dias_uteis")
+    private Integer diasUteis;
+
     @Enumerated(EnumType.STRING)
     @Builder.Default
     private StatusSolicitacao status = StatusSolicitacao.PENDENTE;
@@ -57,7 +64,12 @@ public class Solicitacao {
     private LocalDateTime updatedAt;
 
     public long getDiasTotal() {
-        return ChronoUnit.DAYS.between(dataInicio, dataFim) + 1;
+        return calcularDiasTotal(diasUteis, dataInicio, dataFim);
+    }
+
+    // Solicitações anteriores ao calendário de dias úteis debitaram dias corridos
+    public static long calcularDiasTotal(Integer diasUteis, LocalDate inicio, LocalDate fim) {
+        return diasUteis != null ? diasUteis : ChronoUnit.DAYS.between(inicio, fim) + 1;
     }
 
     @PreUpdate
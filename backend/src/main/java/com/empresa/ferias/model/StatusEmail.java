@@ -0,0 +1,8 @@
+package com.empresa.ferias.model;
+
+public enum StatusEmail {
+    PENDENTE,
+    ENVIANDO,
+    ENVIADO,
+    FALHOU
+}
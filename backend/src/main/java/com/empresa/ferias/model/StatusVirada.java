@@ -0,0 +1,10 @@
+package com.empresa.ferias.model;
+
+public enum StatusVirada {
+    // Criando os saldos do ano seguinte
+    EM_ANDAMENTO,
+    // Saldos criados; aguardando o fim do ano de origem para transferir as sobras
+    SALDOS_CRIADOS,
+    TRANSFERINDO,
+    CONCLUIDA
+}
@@ -2,9 +2,14 @@ package com.empresa.ferias.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "tipos_ausencia")
+@Cacheable
+// Região sem pontos: o Caffeine JCache não encontra no application.conf nomes com "."
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tipos-ausencia")
 @Data
 @Builder
 @NoArgsConstructor
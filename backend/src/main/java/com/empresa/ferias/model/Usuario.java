@@ -43,10 +43,19 @@ public class Usuario implements UserDetails {
 
     private String cargo;
 
+    // Sigla do calendário regional de feriados (ex.: SP); nulo usa só os nacionais
+    @Column(length = 10)
+    private String regiao;
+
     @Enumerated(EnumType.STRING)
     @Builder.Default
     private Role role = Role.USER;
 
+    // Incrementada para revogar os JWTs já emitidos (claim "tv")
+    @Column(name = "versao_token", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer versaoToken = 0;
+
     @Column(name = "token_confirmacao")
     private String tokenConfirmacao;
 
@@ -0,0 +1,25 @@
+package com.empresa.ferias.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contador de alterações de um recurso exposto com ETag ("u:{id}" para os dados
+ * de um usuário, "todos" para cargas em massa, "tipos" para os tipos de
+ * ausência). Incrementado na mesma transação da escrita, é compartilhado entre
+ * todas as instâncias da API.
+ */
+@Entity
+@Table(name = "versoes_recursos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoRecurso {
+
+    @Id
+    @Column(length = 40)
+    private String chave;
+
+    @Column(nullable = false)
+    private Long versao;
+}
@@ -0,0 +1,48 @@
+package com.empresa.ferias.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint da virada de saldos para um ano: cada lote grava aqui o último
+ * usuário processado na mesma transação dos inserts, e uma execução
+ * interrompida continua a partir dele.
+ */
+@Entity
+@Table(name = "viradas_saldo")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViradaSaldo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ano_destino", nullable = false, unique = true)
+    private Integer anoDestino;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private StatusVirada status = StatusVirada.EM_ANDAMENTO;
+
+    @Column(name = "ultimo_usuario_id", nullable = false)
+    @Builder.Default
+    private Long ultimoUsuarioId = 0L;
+
+    @Builder.Default
+    private Integer processados = 0;
+
+    @Column(name = "iniciada_em")
+    private LocalDateTime iniciadaEm;
+
+    @Column(name = "atualizada_em")
+    private LocalDateTime atualizadaEm;
+
+    @Column(name = "concluida_em")
+    private LocalDateTime concluidaEm;
+}
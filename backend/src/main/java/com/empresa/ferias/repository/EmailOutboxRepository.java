@@ -0,0 +1,28 @@
+package com.empresa.ferias.repository;
+
+import com.empresa.ferias.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // SKIP LOCKED permite várias instâncias drenando a fila sem disputar as mesmas linhas.
+    // Emails ENVIANDO com reserva vencida (worker caiu no meio do envio) voltam para a fila.
+    @Query(value = "SELECT id FROM email_outbox " +
+                   "WHERE status IN ('PENDENTE', 'ENVIANDO') AND proxima_tentativa <= :agora " +
+                   "ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> bloquearProntosParaEnvio(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = com.empresa.ferias.model.StatusEmail.ENVIANDO, " +
+           "e.proximaTentativa = :reservadoAte WHERE e.id IN :ids")
+    int reservar(@Param("ids") List<Long> ids, @Param("reservadoAte") LocalDateTime reservadoAte);
+}
@@ -23,5 +23,18 @@ public interface EquipeRepository extends JpaRepository<Equipe, Long> {
     @Query("SELECT e FROM Equipe e JOIN e.membros m WHERE m.id = :usuarioId")
     List<Equipe> findByMembroId(Long usuarioId);
 
+    @Query("SELECT m.id FROM Equipe e JOIN e.membros m WHERE e.id = :equipeId")
+    List<Long> findMembroIds(@Param("equipeId") Long equipeId);
+
+    @Query("SELECT DISTINCT m.id FROM Equipe e JOIN e.membros m WHERE e.gestor.id = :gestorId")
+    List<Long> findMembroIdsByGestorId(@Param("gestorId") Long gestorId);
+
+    @Query("SELECT e.id FROM Equipe e JOIN e.membros m WHERE m.id = :usuarioId")
+    List<Long> findIdsByMembroId(@Param("usuarioId") Long usuarioId);
+
+    boolean existsByIdAndGestorId(Long id, Long gestorId);
+
+    boolean existsByIdAndMembrosId(Long id, Long usuarioId);
+
     boolean existsByNome(String nome);
 }
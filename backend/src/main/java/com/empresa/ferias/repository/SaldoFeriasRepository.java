@@ -2,6 +2,9 @@ package com.empresa.ferias.repository;
 
 import com.empresa.ferias.model.SaldoFerias;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +20,19 @@ public interface SaldoFeriasRepository extends JpaRepository<SaldoFerias, Long>
     List<SaldoFerias> findByAnoReferencia(Integer anoReferencia);
 
     boolean existsByUsuarioIdAndAnoReferencia(Long usuarioId, Integer anoReferencia);
+
+    // Débito atômico: só altera a linha se houver saldo suficiente, sem ler antes.
+    // Retorna 0 quando o saldo não existe ou é insuficiente.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SaldoFerias s SET s.diasUsados = s.diasUsados + :dias, s.versao = s.versao + 1 " +
+           "WHERE s.usuario.id = :usuarioId AND s.anoReferencia = :ano " +
+           "AND s.diasTotais - s.diasUsados >= :dias")
+    int debitarDias(@Param("usuarioId") Long usuarioId, @Param("ano") int ano, @Param("dias") int dias);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SaldoFerias s SET s.diasUsados = " +
+           "CASE WHEN s.diasUsados >= :dias THEN s.diasUsados - :dias ELSE 0 END, " +
+           "s.versao = s.versao + 1 " +
+           "WHERE s.usuario.id = :usuarioId AND s.anoReferencia = :ano")
+    int devolverDias(@Param("usuarioId") Long usuarioId, @Param("ano") int ano, @Param("dias") int dias);
 }
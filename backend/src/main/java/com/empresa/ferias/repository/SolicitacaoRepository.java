@@ -1,27 +1,58 @@
 package com.empresa.ferias.repository;
 
+import com.empresa.ferias.dto.SolicitacaoDTO;
 import com.empresa.ferias.model.Solicitacao;
 import com.empresa.ferias.model.StatusSolicitacao;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface SolicitacaoRepository extends JpaRepository<Solicitacao, Long> {
 
+    // Filtros opcionais compartilhados pela listagem paginada e pelo streaming
+    String FILTROS =
+            "AND (:status IS NULL OR s.status = :status) " +
+            "AND (:inicio IS NULL OR s.dataFim >= :inicio) " +
+            "AND (:fim IS NULL OR s.dataInicio <= :fim) " +
+            "AND (:equipeId IS NULL OR s.usuario.id IN " +
+            "(SELECT m.id FROM Equipe e JOIN e.membros m WHERE e.id = :equipeId)) " +
+            "AND (:gestorId IS NULL OR EXISTS (SELECT 1 FROM Equipe g JOIN g.membros gm " +
+            "WHERE g.gestor.id = :gestorId AND gm.id = s.usuario.id)) ";
+
+    // Semi-join gestor -> membros_equipe -> solicitação (EXISTS evita duplicar quem
+    // está em mais de uma equipe do mesmo gestor)
+    String DO_GESTOR =
+            "EXISTS (SELECT 1 FROM Equipe g JOIN g.membros gm WHERE g.gestor.id = :gestorId AND gm.id = u.id) ";
+
+    // Projeção direta para SolicitacaoDTO: usuário, tipo e aprovador vêm na mesma query
+    String PROJECAO_DTO =
+            "SELECT new com.empresa.ferias.dto.SolicitacaoDTO(s.id, u.id, u.nomeCompleto, " +
+            "t.id, t.nome, t.corHex, s.dataInicio, s.dataFim, s.diasUteis, s.status, s.observacao, " +
+            "s.motivoRejeicao, a.nomeCompleto, s.dataAprovacao, s.createdAt) " +
+            "FROM Solicitacao s JOIN s.usuario u JOIN s.tipoAusencia t LEFT JOIN s.aprovador a ";
+
     List<Solicitacao> findByUsuarioId(Long usuarioId);
 
     List<Solicitacao> findByUsuarioIdAndStatus(Long usuarioId, StatusSolicitacao status);
 
+    List<Solicitacao> findByUsuarioIdAndStatusIn(Long usuarioId, Collection<StatusSolicitacao> status);
+
     @Query("SELECT s FROM Solicitacao s WHERE s.usuario.id = :usuarioId " +
            "AND s.status NOT IN (com.empresa.ferias.model.StatusSolicitacao.CANCELADO, " +
            "com.empresa.ferias.model.StatusSolicitacao.REJEITADO) " +
-           "AND ((s.dataInicio BETWEEN :inicio AND :fim) OR (s.dataFim BETWEEN :inicio AND :fim) " +
-           "OR (s.dataInicio <= :inicio AND s.dataFim >= :fim))")
+           "AND s.dataInicio <= :fim AND s.dataFim >= :inicio")
     List<Solicitacao> findConflitos(@Param("usuarioId") Long usuarioId,
                                     @Param("inicio") LocalDate inicio,
                                     @Param("fim") LocalDate fim);
@@ -33,11 +64,79 @@ public interface SolicitacaoRepository extends JpaRepository<Solicitacao, Long>
     List<Solicitacao> findByUsuarioIdsAndStatus(@Param("usuarioIds") List<Long> usuarioIds,
                                                  @Param("status") StatusSolicitacao status);
 
-    @Query("SELECT s FROM Solicitacao s WHERE YEAR(s.dataInicio) = :ano OR YEAR(s.dataFim) = :ano")
-    List<Solicitacao> findByAno(@Param("ano") int ano);
+    // Sobreposição de intervalos (sargable): usa os índices declarados em Solicitacao
+    @Query("SELECT s FROM Solicitacao s WHERE s.dataInicio <= :fim AND s.dataFim >= :inicio")
+    List<Solicitacao> findByPeriodo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
-    @Query("SELECT s FROM Solicitacao s WHERE s.usuario.id = :usuarioId AND (YEAR(s.dataInicio) = :ano OR YEAR(s.dataFim) = :ano)")
-    List<Solicitacao> findByUsuarioIdAndAno(@Param("usuarioId") Long usuarioId, @Param("ano") int ano);
+    @Query("SELECT s FROM Solicitacao s WHERE s.usuario.id = :usuarioId AND s.dataInicio <= :fim AND s.dataFim >= :inicio")
+    List<Solicitacao> findByUsuarioIdAndPeriodo(@Param("usuarioId") Long usuarioId,
+                                                @Param("inicio") LocalDate inicio,
+                                                @Param("fim") LocalDate fim);
+
+    default List<Solicitacao> findByAno(int ano) {
+        return findByPeriodo(LocalDate.of(ano, 1, 1), LocalDate.of(ano, 12, 31));
+    }
+
+    default List<Solicitacao> findByUsuarioIdAndAno(Long usuarioId, int ano) {
+        return findByUsuarioIdAndPeriodo(usuarioId, LocalDate.of(ano, 1, 1), LocalDate.of(ano, 12, 31));
+    }
 
     List<Solicitacao> findByStatus(StatusSolicitacao status);
+
+    @Query(PROJECAO_DTO + "WHERE s.status IN :status AND s.dataInicio <= :fim AND s.dataFim >= :inicio " +
+           "AND u.id IN (SELECT m.id FROM Equipe e JOIN e.membros m WHERE e.id = :equipeId)")
+    List<SolicitacaoDTO> findDtosByEquipeIdAndPeriodo(@Param("equipeId") Long equipeId,
+                                                      @Param("status") Collection<StatusSolicitacao> status,
+                                                      @Param("inicio") LocalDate inicio,
+                                                      @Param("fim") LocalDate fim);
+
+    @Query(PROJECAO_DTO + "WHERE u.id = :usuarioId")
+    List<SolicitacaoDTO> findDtosByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query(PROJECAO_DTO + "WHERE u.id = :usuarioId AND s.dataInicio <= :fim AND s.dataFim >= :inicio")
+    List<SolicitacaoDTO> findDtosByUsuarioIdAndPeriodo(@Param("usuarioId") Long usuarioId,
+                                                       @Param("inicio") LocalDate inicio,
+                                                       @Param("fim") LocalDate fim);
+
+    default List<SolicitacaoDTO> findDtosByUsuarioIdAndAno(Long usuarioId, int ano) {
+        return findDtosByUsuarioIdAndPeriodo(usuarioId, LocalDate.of(ano, 1, 1), LocalDate.of(ano, 12, 31));
+    }
+
+    @Query(PROJECAO_DTO + "WHERE s.status = :status")
+    List<SolicitacaoDTO> findDtosByStatus(@Param("status") StatusSolicitacao status);
+
+    @Query(PROJECAO_DTO + "WHERE s.status = :status AND " + DO_GESTOR + "ORDER BY s.dataInicio")
+    List<SolicitacaoDTO> findDtosByGestorIdAndStatus(@Param("gestorId") Long gestorId,
+                                                     @Param("status") StatusSolicitacao status);
+
+    @Query(PROJECAO_DTO + "WHERE " + DO_GESTOR + "ORDER BY s.id DESC")
+    List<SolicitacaoDTO> findDtosByGestorId(@Param("gestorId") Long gestorId);
+
+    @Query("SELECT s FROM Solicitacao s JOIN FETCH s.usuario JOIN FETCH s.tipoAusencia WHERE s.id IN :ids")
+    List<Solicitacao> findAllByIdComAssociacoes(@Param("ids") Collection<Long> ids);
+
+    // Paginação por keyset (id decrescente): o cursor é o último id da página anterior
+    @Query("SELECT s FROM Solicitacao s JOIN FETCH s.usuario JOIN FETCH s.tipoAusencia LEFT JOIN FETCH s.aprovador " +
+           "WHERE (:cursor IS NULL OR s.id < :cursor) " +
+           FILTROS +
+           "ORDER BY s.id DESC")
+    List<Solicitacao> findPagina(@Param("cursor") Long cursor,
+                                 @Param("status") StatusSolicitacao status,
+                                 @Param("inicio") LocalDate inicio,
+                                 @Param("fim") LocalDate fim,
+                                 @Param("equipeId") Long equipeId,
+                                 @Param("gestorId") Long gestorId,
+                                 Pageable pageable);
+
+    // Deve ser consumido dentro de uma transação e fechado ao final
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Solicitacao s JOIN FETCH s.usuario JOIN FETCH s.tipoAusencia LEFT JOIN FETCH s.aprovador " +
+           "WHERE 1 = 1 " +
+           FILTROS +
+           "ORDER BY s.id DESC")
+    Stream<Solicitacao> streamFiltrado(@Param("status") StatusSolicitacao status,
+                                       @Param("inicio") LocalDate inicio,
+                                       @Param("fim") LocalDate fim,
+                                       @Param("equipeId") Long equipeId,
+                                       @Param("gestorId") Long gestorId);
 }
@@ -1,17 +1,23 @@
 package com.empresa.ferias.repository;
 
 import com.empresa.ferias.model.TipoAusencia;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface TipoAusenciaRepository extends JpaRepository<TipoAusencia, Long> {
 
     Optional<TipoAusencia> findByNome(String nome);
 
+    // Resultado fica no query cache; qualquer escrita em tipos_ausencia o invalida
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<TipoAusencia> findByIsAtivoTrue();
 
     boolean existsByNome(String nome);
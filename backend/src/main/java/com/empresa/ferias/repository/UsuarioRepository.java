@@ -2,8 +2,11 @@ package com.empresa.ferias.repository;
 
 import com.empresa.ferias.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,8 +20,19 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.versaoToken FROM Usuario u WHERE u.id = :id")
+    Optional<Integer> findVersaoTokenById(@Param("id") Long id);
+
+    @Query("SELECT u.regiao FROM Usuario u WHERE u.id = :id")
+    Optional<String> findRegiaoById(@Param("id") Long id);
+
     @Query("SELECT u FROM Usuario u JOIN u.equipes e WHERE e.id = :equipeId")
     List<Usuario> findByEquipeId(Long equipeId);
 
     List<Usuario> findByIsAtivoTrue();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Usuario u SET u.senhaHash = :senhaHash WHERE u.email = :email")
+    int atualizarSenhaHash(@Param("email") String email, @Param("senhaHash") String senhaHash);
 }
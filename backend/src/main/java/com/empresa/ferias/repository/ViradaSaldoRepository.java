@@ -0,0 +1,26 @@
+package com.empresa.ferias.repository;
+
+import com.empresa.ferias.model.StatusVirada;
+import com.empresa.ferias.model.ViradaSaldo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ViradaSaldoRepository extends JpaRepository<ViradaSaldo, Long> {
+
+    Optional<ViradaSaldo> findByAnoDestino(Integer anoDestino);
+
+    // Serializa os lotes entre instâncias: quem tem o lock lê o cursor atualizado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ViradaSaldo v WHERE v.anoDestino = :anoDestino")
+    Optional<ViradaSaldo> bloquearPorAno(@Param("anoDestino") Integer anoDestino);
+
+    List<ViradaSaldo> findByStatusNot(StatusVirada status);
+}
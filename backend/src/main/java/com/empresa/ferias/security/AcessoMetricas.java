@@ -0,0 +1,52 @@
+package com.empresa.ferias.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * Autoriza o scrape do Prometheus em /actuator/prometheus com uma credencial
+ * própria (HTTP Basic, app.metricas.usuario/senha), separada dos usuários da
+ * aplicação. Sem senha configurada o endpoint fica fechado.
+ */
+@Component
+public class AcessoMetricas implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final String BASIC = "Basic ";
+
+    private final byte[] credencial;
+
+    public AcessoMetricas(
+            @Value("${app.metricas.usuario}") String usuario,
+            @Value("${app.metricas.senha:}") String senha
+    ) {
+        this.credencial = senha.isBlank() ? null : (usuario + ":" + senha).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext contexto) {
+        return new AuthorizationDecision(autorizado(contexto.getRequest()));
+    }
+
+    private boolean autorizado(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (credencial == null || header == null || !header.startsWith(BASIC)) {
+            return false;
+        }
+        try {
+            byte[] recebida = Base64.getDecoder().decode(header.substring(BASIC.length()).trim());
+            return MessageDigest.isEqual(credencial, recebida);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.empresa.ferias.security;
+
+import com.empresa.ferias.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal das requisições autenticadas por JWT, montado só a partir das
+ * claims do token, sem consulta ao banco. Quem precisa da entidade
+ * {@code Usuario} a carrega pelo id.
+ */
+public record AuthenticatedUser(Long id, String email, Role role) {
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
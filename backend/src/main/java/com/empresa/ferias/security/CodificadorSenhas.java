@@ -0,0 +1,124 @@
+package com.empresa.ferias.security;
+
+import com.empresa.ferias.config.SenhaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PasswordEncoder da aplicação: BCrypt com fator configurável (app.senha.forca)
+ * atrás de um {@link DelegatingPasswordEncoder}, com o cálculo feito em um pool
+ * próprio e limitado.
+ * <p>
+ * As requisições rodam em virtual threads e só esperam o resultado; quem usa CPU
+ * são as app.senha.threads threads do pool. Com a fila cheia a chamada falha na
+ * hora com {@link LoginSobrecarregadoException}, e um pico de logins não
+ * consome a CPU do resto da API.
+ * <p>
+ * Hashes sem prefixo (anteriores a esta classe) são verificados como BCrypt.
+ * Um hash BCrypt com fator diferente do configurado, para mais ou para menos,
+ * é refeito no próximo login bem-sucedido (ver UserDetailsPasswordService).
+ */
+@Component
+@EnableConfigurationProperties(SenhaProperties.class)
+public class CodificadorSenhas implements PasswordEncoder {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final Pattern FORCA_BCRYPT = Pattern.compile("^(?:\\{bcrypt})?\\$2[aby]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder delegado;
+    private final int forca;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejeitados;
+
+    public CodificadorSenhas(SenhaProperties properties, MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(properties.getForca());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        this.delegado = delegating;
+        this.forca = properties.getForca();
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getFila()),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "bcrypt-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        meterRegistry.gauge("senhas.fila", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("senhas.ativas", executor, ThreadPoolExecutor::getActiveCount);
+        this.rejeitados = meterRegistry.counter("senhas.rejeitadas");
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return executar(() -> delegado.encode(senha));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String hash) {
+        return executar(() -> delegado.matches(senha, hash));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String hash) {
+        if (hash == null || hash.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = FORCA_BCRYPT.matcher(hash);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1)) != forca;
+        }
+        // Outro algoritmo: migra para BCrypt
+        return delegado.upgradeEncoding(hash);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            rejeitados.increment();
+            throw new LoginSobrecarregadoException();
+        }
+
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificação de senha interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
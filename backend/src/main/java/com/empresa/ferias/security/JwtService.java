@@ -1,35 +1,106 @@
 package com.empresa.ferias.security;
 
+import com.empresa.ferias.model.Role;
+import com.empresa.ferias.model.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    private static final String CLAIM_USUARIO_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_VERSAO_TOKEN = "tv";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.cache.tamanho-maximo}")
+    private long cacheTamanhoMaximo;
+
+    @Value("${jwt.cache.ttl}")
+    private long cacheTtl;
+
+    // Chave e parser são imutáveis e thread-safe: criados uma única vez
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    // Token -> claims já verificados; a assinatura é checada uma única vez por token
+    private Cache<String, TokenClaims> tokensVerificados;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+        tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(cacheTamanhoMaximo)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String token, TokenClaims claims, long currentTime) {
+                        long ateExpirar = Duration.between(Instant.now(), claims.expiracao()).toNanos();
+                        return Math.max(0, Math.min(ateExpirar, Duration.ofMillis(cacheTtl).toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verifica assinatura e expiração do token, lançando JwtException se for inválido.
+     * Tokens inválidos lançam exceção no parse e não entram no cache.
+     */
+    public TokenClaims parseAndValidate(String token) {
+        TokenClaims claims = tokensVerificados.get(token, this::parse);
+        if (claims.expirado()) {
+            tokensVerificados.invalidate(token);
+            throw new JwtException("Token expirado");
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseAndValidate(token).email();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    // Claims suficientes para autenticar as requisições sem carregar o usuário
+    public String generateToken(Usuario usuario) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USUARIO_ID, usuario.getId());
+        claims.put(CLAIM_ROLE, usuario.getRole().name());
+        claims.put(CLAIM_VERSAO_TOKEN, usuario.getVersaoToken());
+        return generateToken(claims, usuario);
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -46,33 +117,26 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        try {
+            return parseAndValidate(token).email().equals(userDetails.getUsername());
+        } catch (JwtException e) {
+            return false;
+        }
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private TokenClaims parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        String role = claims.get(CLAIM_ROLE, String.class);
+        return new TokenClaims(
+                claims.getSubject(),
+                claims.get(CLAIM_USUARIO_ID, Long.class),
+                role != null ? Role.valueOf(role) : null,
+                claims.get(CLAIM_VERSAO_TOKEN, Integer.class),
+                claims.getExpiration().toInstant());
     }
 }
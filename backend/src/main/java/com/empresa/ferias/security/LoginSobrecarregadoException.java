@@ -0,0 +1,12 @@
+package com.empresa.ferias.security;
+
+/**
+ * O pool de verificação de senhas está cheio: a requisição é recusada na hora
+ * (429) em vez de esperar e ocupar a CPU que atende o resto da API.
+ */
+public class LoginSobrecarregadoException extends RuntimeException {
+
+    public LoginSobrecarregadoException() {
+        super("Muitos logins simultâneos. Tente novamente em instantes.");
+    }
+}
@@ -0,0 +1,25 @@
+package com.empresa.ferias.security;
+
+import com.empresa.ferias.model.Role;
+
+import java.time.Instant;
+
+/**
+ * Dados de um JWT já verificado. Imutável, pode ser compartilhado entre
+ * requisições pelo cache do JwtService.
+ */
+public record TokenClaims(String email, Long usuarioId, Role role, Integer versaoToken, Instant expiracao) {
+
+    public boolean expirado() {
+        return !expiracao.isAfter(Instant.now());
+    }
+
+    // Tokens emitidos antes das claims de usuário não bastam para montar o principal
+    public boolean completo() {
+        return email != null && usuarioId != null && role != null && versaoToken != null;
+    }
+
+    public AuthenticatedUser usuario() {
+        return new AuthenticatedUser(usuarioId, email, role);
+    }
+}
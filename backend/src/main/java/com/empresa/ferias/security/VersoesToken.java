@@ -0,0 +1,60 @@
+package com.empresa.ferias.security;
+
+import com.empresa.ferias.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Versão atual dos tokens de cada usuário, comparada com a claim "tv" do JWT.
+ * Mudar role ou desativar o usuário incrementa a versão e revoga os tokens já
+ * emitidos. A consulta ao banco é só a da versão (um inteiro por id), em cache
+ * de curta duração.
+ */
+@Component
+public class VersoesToken {
+
+    // Usuário inexistente: nenhum token confere
+    private static final int SEM_USUARIO = -1;
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<Long, Integer> porUsuario;
+
+    public VersoesToken(
+            UsuarioRepository usuarioRepository,
+            @Value("${jwt.cache.versoes-tamanho-maximo}") long tamanhoMaximo,
+            @Value("${jwt.cache.versoes-ttl}") long ttl
+    ) {
+        this.usuarioRepository = usuarioRepository;
+        this.porUsuario = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+
+    public boolean valida(TokenClaims claims) {
+        int atual = porUsuario.get(claims.usuarioId(),
+                id -> usuarioRepository.findVersaoTokenById(id).orElse(SEM_USUARIO));
+        return claims.versaoToken() == atual;
+    }
+
+    public void invalidar(Long usuarioId) {
+        porUsuario.invalidate(usuarioId);
+
+        // Invalida de novo após o commit, para descartar o que outra requisição
+        // possa ter carregado do banco antes da transação terminar
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    porUsuario.invalidate(usuarioId);
+                }
+            });
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.empresa.ferias.service;
 
+import com.empresa.ferias.config.ViradaSaldoProperties;
 import com.empresa.ferias.dto.auth.AuthResponse;
 import com.empresa.ferias.dto.auth.LoginRequest;
 import com.empresa.ferias.dto.auth.RegisterRequest;
@@ -32,6 +33,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final ViradaSaldoProperties viradaSaldoProperties;
 
     @Value("${app.confirmation-token-expiration}")
     private long tokenExpiration;
@@ -62,7 +64,7 @@ public class AuthService {
         SaldoFerias saldo = SaldoFerias.builder()
                 .usuario(usuario)
                 .anoReferencia(Year.now().getValue())
-                .diasTotais(30)
+                .diasTotais(viradaSaldoProperties.getDiasPadrao())
                 .diasUsados(0)
                 .build();
         saldoFeriasRepository.save(saldo);
@@ -0,0 +1,140 @@
+package com.empresa.ferias.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contagem de dias úteis (segunda a sexta, fora os feriados) por região.
+ * <p>
+ * Os feriados vêm de app.feriados.arquivo, uma linha {@code data;regiao;descricao}
+ * por feriado: data {@code MM-dd} repete todo ano, {@code yyyy-MM-dd} vale só
+ * naquele ano; região vazia é feriado nacional. Para cada (região, ano) é
+ * montado uma vez um array de somas prefixadas, em que {@code prefixo[i]} é o
+ * número de dias úteis entre os i primeiros dias do ano, e a contagem de
+ * qualquer período vira uma subtração por ano envolvido.
+ */
+@Service
+@Slf4j
+public class CalendarioDiasUteis {
+
+    private static final String NACIONAL = "";
+
+    private final Map<String, Set<MonthDay>> feriadosFixos = new HashMap<>();
+    private final Map<String, Set<LocalDate>> feriadosDatados = new HashMap<>();
+    private final Cache<ChaveAno, int[]> prefixos;
+
+    public CalendarioDiasUteis(
+            @Value("${app.feriados.arquivo}") Resource arquivo,
+            @Value("${app.feriados.tamanho-maximo}") long tamanhoMaximo
+    ) {
+        this.prefixos = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .build();
+        carregar(arquivo);
+    }
+
+    /** Dias úteis em [inicio, fim] para a região (nula ou desconhecida: só feriados nacionais). */
+    public int contar(String regiao, LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            return 0;
+        }
+
+        String chaveRegiao = normalizar(regiao);
+        int total = 0;
+        for (int ano = inicio.getYear(); ano <= fim.getYear(); ano++) {
+            int[] prefixo = prefixos.get(new ChaveAno(chaveRegiao, ano), this::montar);
+            int de = ano == inicio.getYear() ? inicio.getDayOfYear() - 1 : 0;
+            int ate = ano == fim.getYear() ? fim.getDayOfYear() : prefixo.length - 1;
+            total += prefixo[ate] - prefixo[de];
+        }
+        return total;
+    }
+
+    private int[] montar(ChaveAno chave) {
+        int diasNoAno = Year.of(chave.ano()).length();
+        int[] prefixo = new int[diasNoAno + 1];
+        for (int i = 0; i < diasNoAno; i++) {
+            LocalDate dia = LocalDate.ofYearDay(chave.ano(), i + 1);
+            prefixo[i + 1] = prefixo[i] + (isUtil(dia, chave.regiao()) ? 1 : 0);
+        }
+        return prefixo;
+    }
+
+    private boolean isUtil(LocalDate dia, String regiao) {
+        DayOfWeek diaSemana = dia.getDayOfWeek();
+        if (diaSemana == DayOfWeek.SATURDAY || diaSemana == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        return !isFeriado(dia, NACIONAL) && (regiao.equals(NACIONAL) || !isFeriado(dia, regiao));
+    }
+
+    private boolean isFeriado(LocalDate dia, String regiao) {
+        return feriadosFixos.getOrDefault(regiao, Set.of()).contains(MonthDay.from(dia))
+                || feriadosDatados.getOrDefault(regiao, Set.of()).contains(dia);
+    }
+
+    // Regiões sem feriados próprios compartilham o calendário nacional no cache
+    private String normalizar(String regiao) {
+        if (regiao == null || regiao.isBlank()) {
+            return NACIONAL;
+        }
+        String sigla = regiao.trim().toUpperCase();
+        return feriadosFixos.containsKey(sigla) || feriadosDatados.containsKey(sigla) ? sigla : NACIONAL;
+    }
+
+    private void carregar(Resource arquivo) {
+        int total = 0;
+        try (BufferedReader leitor = new BufferedReader(
+                new InputStreamReader(arquivo.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            int numero = 0;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+
+                String[] campos = linha.split(";", -1);
+                String data = campos[0].trim();
+                String regiao = campos.length > 1 ? campos[1].trim().toUpperCase() : NACIONAL;
+                try {
+                    if (data.length() == 5) {
+                        feriadosFixos.computeIfAbsent(regiao, r -> new HashSet<>()).add(MonthDay.parse("--" + data));
+                    } else {
+                        feriadosDatados.computeIfAbsent(regiao, r -> new HashSet<>()).add(LocalDate.parse(data));
+                    }
+                } catch (DateTimeParseException e) {
+                    throw new IllegalStateException("Data inválida na linha " + numero + " de "
+                            + arquivo.getDescription() + ": " + data, e);
+                }
+                total++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler " + arquivo.getDescription(), e);
+        }
+        log.info("{} feriados carregados de {}", total, arquivo.getDescription());
+    }
+
+    private record ChaveAno(String regiao, int ano) {
+    }
+}
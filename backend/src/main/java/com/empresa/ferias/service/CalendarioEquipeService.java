@@ -0,0 +1,293 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.dto.CalendarioEquipeDTO;
+import com.empresa.ferias.dto.SolicitacaoDTO;
+import com.empresa.ferias.event.SolicitacaoAlteradaEvent;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.empresa.ferias.repository.EquipeRepository;
+import com.empresa.ferias.repository.SolicitacaoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calendário de ocupação por equipe e ano, mantido em memória.
+ * <p>
+ * Cada (usuário, tipo, status) tem um {@link BitSet} com os dias do ano em que
+ * está ausente, e a equipe tem um {@link ContagemDiaria} com quantos membros
+ * estão ausentes em cada dia (usado na regra de cobertura mínima).
+ * O calendário é carregado do banco na primeira consulta e depois
+ * atualizado a cada {@link SolicitacaoAlteradaEvent}, sem recarregar a equipe.
+ * Mudanças de membros invalidam a equipe inteira.
+ * <p>
+ * Como o índice de conflitos, o calendário só enxerga as alterações feitas
+ * nesta instância. Com mais de uma instância da API, app.calendario.habilitado
+ * deve ser false (cada consulta monta o calendário a partir do banco);
+ * app.calendario.ttl limita por quanto tempo uma entrada pode divergir.
+ */
+@Service
+public class CalendarioEquipeService {
+
+    private static final Set<StatusSolicitacao> STATUS_VISIVEIS =
+            EnumSet.of(StatusSolicitacao.PENDENTE, StatusSolicitacao.APROVADO);
+
+    private final SolicitacaoRepository solicitacaoRepository;
+    private final EquipeRepository equipeRepository;
+    private final boolean habilitado;
+    private final Cache<ChaveCalendario, CalendarioEquipe> calendarios;
+
+    // Incrementado a cada alteração aplicada; uma carga feita enquanto ele mudou não é guardada
+    private final AtomicLong alteracoes = new AtomicLong();
+
+    public CalendarioEquipeService(
+            SolicitacaoRepository solicitacaoRepository,
+            EquipeRepository equipeRepository,
+            @Value("${app.calendario.habilitado}") boolean habilitado,
+            @Value("${app.calendario.tamanho-maximo}") long tamanhoMaximo,
+            @Value("${app.calendario.ttl}") long ttl
+    ) {
+        this.solicitacaoRepository = solicitacaoRepository;
+        this.equipeRepository = equipeRepository;
+        this.habilitado = habilitado;
+        this.calendarios = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+
+    // O calendário expõe dias e tipos de ausência de cada membro: só para o gestor e os membros
+    public CalendarioEquipeDTO buscar(Long equipeId, int ano, Long usuarioId) {
+        if (!equipeRepository.existsByIdAndGestorId(equipeId, usuarioId)
+                && !equipeRepository.existsByIdAndMembrosId(equipeId, usuarioId)) {
+            throw new RuntimeException("Equipe não encontrada ou você não participa dela");
+        }
+        return calendario(new ChaveCalendario(equipeId, ano)).toDTO();
+    }
+
+    /**
+     * Dias de [inicio, fim] em que a equipe já tem {@code limite} ou mais membros
+     * ausentes (pendentes ou aprovados), até {@code quantidade} dias.
+     */
+    public List<LocalDate> diasNoLimite(Long equipeId, LocalDate inicio, LocalDate fim, int limite, int quantidade) {
+        List<LocalDate> dias = new ArrayList<>();
+        for (int ano = inicio.getYear(); ano <= fim.getYear() && dias.size() < quantidade; ano++) {
+            CalendarioEquipe calendario = calendario(new ChaveCalendario(equipeId, ano));
+            dias.addAll(calendario.diasNoLimite(inicio, fim, limite, quantidade - dias.size()));
+        }
+        return dias;
+    }
+
+    public void invalidarEquipe(Long equipeId) {
+        alteracoes.incrementAndGet();
+        calendarios.asMap().keySet().removeIf(chave -> chave.equipeId().equals(equipeId));
+
+        // Descarta também o que for carregado antes do commit da alteração de membros
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    alteracoes.incrementAndGet();
+                    calendarios.asMap().keySet().removeIf(chave -> chave.equipeId().equals(equipeId));
+                }
+            });
+        }
+    }
+
+    public void invalidarTodos() {
+        alteracoes.incrementAndGet();
+        calendarios.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarSolicitacao(SolicitacaoAlteradaEvent evento) {
+        SolicitacaoDTO solicitacao = evento.getSolicitacao();
+        int anoInicio = solicitacao.getDataInicio().getYear();
+        int anoFim = solicitacao.getDataFim().getYear();
+
+        // Calendários ainda não carregados virão do banco com a alteração;
+        // uma carga em andamento é descartada pelo contador de alterações
+        alteracoes.incrementAndGet();
+        for (ChaveCalendario chave : calendarios.asMap().keySet()) {
+            if (chave.ano() < anoInicio || chave.ano() > anoFim) {
+                continue;
+            }
+            calendarios.asMap().computeIfPresent(chave, (c, calendario) -> {
+                calendario.aplicar(solicitacao);
+                return calendario;
+            });
+        }
+    }
+
+    // A query roda fora do lock do mapa, para não segurar outras chaves do mesmo bin
+    private CalendarioEquipe calendario(ChaveCalendario chave) {
+        if (!habilitado) {
+            return carregar(chave);
+        }
+
+        CalendarioEquipe calendario = calendarios.getIfPresent(chave);
+        if (calendario != null) {
+            return calendario;
+        }
+
+        long versao = alteracoes.get();
+        CalendarioEquipe carregado = carregar(chave);
+        if (alteracoes.get() != versao) {
+            return carregado;
+        }
+        CalendarioEquipe existente = calendarios.asMap().putIfAbsent(chave, carregado);
+        return existente != null ? existente : carregado;
+    }
+
+    private CalendarioEquipe carregar(ChaveCalendario chave) {
+        CalendarioEquipe calendario = new CalendarioEquipe(chave,
+                new HashSet<>(equipeRepository.findMembroIds(chave.equipeId())));
+
+        List<SolicitacaoDTO> solicitacoes = solicitacaoRepository.findDtosByEquipeIdAndPeriodo(
+                chave.equipeId(), STATUS_VISIVEIS, LocalDate.of(chave.ano(), 1, 1), LocalDate.of(chave.ano(), 12, 31));
+        solicitacoes.forEach(calendario::aplicar);
+        return calendario;
+    }
+
+    private record ChaveCalendario(Long equipeId, int ano) {
+    }
+
+    private record Faixa(Long usuarioId, Long tipoAusenciaId, StatusSolicitacao status) {
+    }
+
+    private record Periodo(Faixa faixa, LocalDate inicio, LocalDate fim) {
+    }
+
+    private static final class CalendarioEquipe {
+
+        private final ChaveCalendario chave;
+        private final Set<Long> membros;
+        private final Map<Long, Periodo> porSolicitacao = new HashMap<>();
+        private final Map<Faixa, BitSet> dias = new HashMap<>();
+        private final ContagemDiaria ausentesPorDia;
+
+        CalendarioEquipe(ChaveCalendario chave, Set<Long> membros) {
+            this.chave = chave;
+            this.membros = membros;
+            this.ausentesPorDia = new ContagemDiaria(Year.of(chave.ano()).length());
+        }
+
+        synchronized void aplicar(SolicitacaoDTO solicitacao) {
+            if (!membros.contains(solicitacao.getUsuarioId())) {
+                return;
+            }
+
+            Periodo anterior = porSolicitacao.remove(solicitacao.getId());
+            if (anterior != null) {
+                recalcular(anterior.faixa());
+                contar(anterior.inicio(), anterior.fim(), -1);
+            }
+
+            if (STATUS_VISIVEIS.contains(solicitacao.getStatus())) {
+                Periodo periodo = new Periodo(
+                        new Faixa(solicitacao.getUsuarioId(), solicitacao.getTipoAusenciaId(), solicitacao.getStatus()),
+                        solicitacao.getDataInicio(),
+                        solicitacao.getDataFim());
+                porSolicitacao.put(solicitacao.getId(), periodo);
+                marcar(dias.computeIfAbsent(periodo.faixa(), f -> new BitSet(366)), periodo);
+                contar(periodo.inicio(), periodo.fim(), 1);
+            }
+        }
+
+        synchronized List<LocalDate> diasNoLimite(LocalDate inicio, LocalDate fim, int limite, int quantidade) {
+            int[] indices = indices(inicio, fim);
+            if (indices == null || ausentesPorDia.maximo(indices[0], indices[1]) < limite) {
+                return List.of();
+            }
+            return ausentesPorDia.diasComPeloMenos(indices[0], indices[1], limite, quantidade).stream()
+                    .map(dia -> LocalDate.ofYearDay(chave.ano(), dia + 1))
+                    .toList();
+        }
+
+        synchronized CalendarioEquipeDTO toDTO() {
+            List<CalendarioEquipeDTO.Faixa> faixas = new ArrayList<>(dias.size());
+            dias.forEach((faixa, bits) -> faixas.add(CalendarioEquipeDTO.Faixa.builder()
+                    .usuarioId(faixa.usuarioId())
+                    .tipoAusenciaId(faixa.tipoAusenciaId())
+                    .status(faixa.status())
+                    .periodos(codificar(bits))
+                    .build()));
+
+            return CalendarioEquipeDTO.builder()
+                    .equipeId(chave.equipeId())
+                    .ano(chave.ano())
+                    .diasNoAno(Year.of(chave.ano()).length())
+                    .faixas(faixas)
+                    .build();
+        }
+
+        // Remover um período pode apagar dias que outra solicitação da mesma
+        // faixa também cobre, então a faixa é remontada a partir das restantes
+        private void recalcular(Faixa faixa) {
+            BitSet bits = new BitSet(366);
+            porSolicitacao.values().stream()
+                    .filter(p -> p.faixa().equals(faixa))
+                    .forEach(p -> marcar(bits, p));
+
+            if (bits.isEmpty()) {
+                dias.remove(faixa);
+            } else {
+                dias.put(faixa, bits);
+            }
+        }
+
+        private void marcar(BitSet bits, Periodo periodo) {
+            int[] indices = indices(periodo.inicio(), periodo.fim());
+            if (indices != null) {
+                bits.set(indices[0], indices[1] + 1);
+            }
+        }
+
+        private void contar(LocalDate inicio, LocalDate fim, int valor) {
+            int[] indices = indices(inicio, fim);
+            if (indices != null) {
+                ausentesPorDia.somar(indices[0], indices[1], valor);
+            }
+        }
+
+        // Índice i = dia do ano i + 1; períodos que atravessam o ano são recortados.
+        // Retorna null se o período não cai neste ano.
+        private int[] indices(LocalDate inicio, LocalDate fim) {
+            LocalDate primeiroDia = LocalDate.of(chave.ano(), 1, 1);
+            LocalDate ultimoDia = LocalDate.of(chave.ano(), 12, 31);
+            LocalDate de = inicio.isBefore(primeiroDia) ? primeiroDia : inicio;
+            LocalDate ate = fim.isAfter(ultimoDia) ? ultimoDia : fim;
+            if (ate.isBefore(de)) {
+                return null;
+            }
+            return new int[]{de.getDayOfYear() - 1, ate.getDayOfYear() - 1};
+        }
+
+        private static int[] codificar(BitSet bits) {
+            List<Integer> pares = new ArrayList<>();
+            for (int inicio = bits.nextSetBit(0); inicio >= 0; inicio = bits.nextSetBit(inicio)) {
+                int fim = bits.nextClearBit(inicio);
+                pares.add(inicio + 1);
+                pares.add(fim);
+                inicio = fim;
+            }
+            return pares.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.empresa.ferias.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contador por dia do ano (árvore de segmentos com propagação preguiçosa):
+ * soma em intervalo e máximo em intervalo em O(log n). Índices começam em 0.
+ * Não é thread-safe; quem usa sincroniza.
+ */
+class ContagemDiaria {
+
+    private final int tamanho;
+    private final int[] maximo;
+    private final int[] pendente;
+
+    ContagemDiaria(int tamanho) {
+        this.tamanho = tamanho;
+        this.maximo = new int[4 * tamanho];
+        this.pendente = new int[4 * tamanho];
+    }
+
+    void somar(int inicio, int fim, int valor) {
+        somar(1, 0, tamanho - 1, inicio, fim, valor);
+    }
+
+    int maximo(int inicio, int fim) {
+        return maximo(1, 0, tamanho - 1, inicio, fim);
+    }
+
+    /** Primeiros índices em [inicio, fim] com contagem &gt;= limite, até {@code quantidade}. */
+    List<Integer> diasComPeloMenos(int inicio, int fim, int limite, int quantidade) {
+        List<Integer> dias = new ArrayList<>(quantidade);
+        coletar(1, 0, tamanho - 1, inicio, fim, limite, quantidade, dias);
+        return dias;
+    }
+
+    private void somar(int no, int esq, int dir, int inicio, int fim, int valor) {
+        if (fim < esq || dir < inicio) {
+            return;
+        }
+        if (inicio <= esq && dir <= fim) {
+            maximo[no] += valor;
+            pendente[no] += valor;
+            return;
+        }
+        propagar(no);
+        int meio = (esq + dir) >>> 1;
+        somar(2 * no, esq, meio, inicio, fim, valor);
+        somar(2 * no + 1, meio + 1, dir, inicio, fim, valor);
+        maximo[no] = Math.max(maximo[2 * no], maximo[2 * no + 1]);
+    }
+
+    private int maximo(int no, int esq, int dir, int inicio, int fim) {
+        if (fim < esq || dir < inicio) {
+            return Integer.MIN_VALUE;
+        }
+        if (inicio <= esq && dir <= fim) {
+            return maximo[no];
+        }
+        propagar(no);
+        int meio = (esq + dir) >>> 1;
+        return Math.max(maximo(2 * no, esq, meio, inicio, fim), maximo(2 * no + 1, meio + 1, dir, inicio, fim));
+    }
+
+    // Desce só pelos nós cujo máximo atinge o limite: O(k log n) para k dias encontrados
+    private void coletar(int no, int esq, int dir, int inicio, int fim, int limite, int quantidade, List<Integer> dias) {
+        if (dias.size() >= quantidade || fim < esq || dir < inicio || maximo[no] < limite) {
+            return;
+        }
+        if (esq == dir) {
+            dias.add(esq);
+            return;
+        }
+        propagar(no);
+        int meio = (esq + dir) >>> 1;
+        coletar(2 * no, esq, meio, inicio, fim, limite, quantidade, dias);
+        coletar(2 * no + 1, meio + 1, dir, inicio, fim, limite, quantidade, dias);
+    }
+
+    private void propagar(int no) {
+        if (pendente[no] != 0) {
+            for (int filho = 2 * no; filho <= 2 * no + 1; filho++) {
+                maximo[filho] += pendente[no];
+                pendente[filho] += pendente[no];
+            }
+            pendente[no] = 0;
+        }
+    }
+}
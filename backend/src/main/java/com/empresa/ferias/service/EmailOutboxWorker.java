@@ -0,0 +1,176 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.config.LimitadorConcorrencia;
+import com.empresa.ferias.model.EmailOutbox;
+import com.empresa.ferias.model.StatusEmail;
+import com.empresa.ferias.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Drena a tabela email_outbox: reserva um lote em uma transação curta, envia o
+ * lote inteiro por uma única conexão SMTP (fora de transação, sem segurar conexão
+ * com o banco) e grava o resultado, reagendando falhas com backoff exponencial.
+ * Até app.async.limites.smtp lotes são enviados em paralelo no executor assíncrono.
+ */
+@Component
+@ConditionalOnProperty(name = "app.email.outbox.worker-habilitado", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxWorker {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final LimitadorConcorrencia limitadorConcorrencia;
+
+    private static final String SMTP = "smtp";
+
+    @Value("${app.email.outbox.tamanho-lote}")
+    private int tamanhoLote;
+
+    @Value("${app.email.outbox.max-tentativas}")
+    private int maxTentativas;
+
+    @Value("${app.email.outbox.backoff-inicial}")
+    private long backoffInicial;
+
+    @Value("${app.email.outbox.backoff-maximo}")
+    private long backoffMaximo;
+
+    @Value("${app.email.outbox.reserva}")
+    private long tempoReserva;
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.intervalo}")
+    public void processar() {
+        int lotesParalelos = limitadorConcorrencia.limite(SMTP);
+        boolean haMais;
+        do {
+            // Reserva só o que será enviado agora, para a reserva não vencer na espera
+            List<List<EmailOutbox>> lotes = new ArrayList<>();
+            List<EmailOutbox> lote;
+            do {
+                lote = reservarLote();
+                if (!lote.isEmpty()) {
+                    lotes.add(lote);
+                }
+            } while (lote.size() == tamanhoLote && lotes.size() < lotesParalelos);
+            haMais = lote.size() == tamanhoLote;
+
+            CompletableFuture.allOf(lotes.stream()
+                    .map(l -> CompletableFuture.runAsync(
+                            () -> limitadorConcorrencia.executar(SMTP, () -> enviarLote(l)),
+                            applicationTaskExecutor))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        } while (haMais);
+    }
+
+    private List<EmailOutbox> reservarLote() {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = emailOutboxRepository.bloquearProntosParaEnvio(LocalDateTime.now(), tamanhoLote);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            emailOutboxRepository.reservar(ids, LocalDateTime.now().plus(Duration.ofMillis(tempoReserva)));
+            return emailOutboxRepository.findAllById(ids);
+        });
+    }
+
+    private void enviarLote(List<EmailOutbox> lote) {
+        SimpleMailMessage[] mensagens = lote.stream()
+                .map(this::criarMensagem)
+                .toArray(SimpleMailMessage[]::new);
+
+        Map<Object, Exception> falhas = Map.of();
+        Exception falhaGeral = null;
+
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        try {
+            // JavaMailSenderImpl envia todas as mensagens pela mesma conexão
+            mailSender.send(mensagens);
+        } catch (MailSendException e) {
+            falhas = e.getFailedMessages();
+            if (falhas.isEmpty()) {
+                falhaGeral = e;
+            }
+        } catch (MailException e) {
+            falhaGeral = e;
+        }
+        amostra.stop(meterRegistry.timer("email.envio",
+                "resultado", falhaGeral == null && falhas.isEmpty() ? "sucesso" : "falha"));
+
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < lote.size(); i++) {
+            EmailOutbox email = lote.get(i);
+            Exception erro = falhaGeral != null ? falhaGeral : falhas.get(mensagens[i]);
+            if (erro == null) {
+                email.setStatus(StatusEmail.ENVIADO);
+                email.setEnviadoEm(agora);
+                email.setUltimoErro(null);
+            } else {
+                registrarFalha(email, erro, agora);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(lote));
+        log.info("Lote de {} emails processado ({} com falha)", lote.size(),
+                falhaGeral != null ? lote.size() : falhas.size());
+    }
+
+    private void registrarFalha(EmailOutbox email, Exception erro, LocalDateTime agora) {
+        int tentativas = email.getTentativas() + 1;
+        email.setTentativas(tentativas);
+        email.setUltimoErro(truncar(erro.getMessage()));
+        meterRegistry.counter("email.falhas", "tipo", email.getTipo()).increment();
+
+        if (tentativas >= maxTentativas) {
+            email.setStatus(StatusEmail.FALHOU);
+            log.error("Email {} para {} descartado após {} tentativas: {}",
+                    email.getId(), email.getDestinatario(), tentativas, erro.getMessage());
+            return;
+        }
+
+        long espera = Math.min(backoffMaximo, backoffInicial * (1L << Math.min(tentativas - 1, 20)));
+        email.setStatus(StatusEmail.PENDENTE);
+        email.setProximaTentativa(agora.plus(Duration.ofMillis(espera)));
+        log.warn("Falha ao enviar email {} para {} (tentativa {}), nova tentativa em {} ms: {}",
+                email.getId(), email.getDestinatario(), tentativas, espera, erro.getMessage());
+    }
+
+    private SimpleMailMessage criarMensagem(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email.getDestinatario());
+        message.setSubject(email.getAssunto());
+        message.setText(email.getCorpo());
+        return message;
+    }
+
+    private String truncar(String mensagem) {
+        if (mensagem == null) {
+            return null;
+        }
+        return mensagem.length() > 1000 ? mensagem.substring(0, 1000) : mensagem;
+    }
+}
@@ -1,95 +1,103 @@
 package com.empresa.ferias.service;
 
+import com.empresa.ferias.model.EmailOutbox;
+import com.empresa.ferias.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+/**
+ * Enfileira notificações na tabela email_outbox dentro da transação corrente.
+ * Nada é enviado aqui: se a transação for desfeita, o email também é; o envio
+ * (em lote, com retentativas) é feito pelo EmailOutboxWorker.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     @Value("${app.frontend-url}")
     private String frontendUrl;
 
-    @Async
+    @Transactional
     public void enviarEmailConfirmacao(String email, String nome, String token) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(email);
-            message.setSubject("Confirme seu cadastro - Sistema de Férias");
-            message.setText(
-                    "Olá " + nome + ",\n\n" +
-                    "Obrigado por se cadastrar no Sistema de Gestão de Férias!\n\n" +
-                    "Clique no link abaixo para confirmar seu email:\n" +
-                    frontendUrl + "/confirmar-email?token=" + token + "\n\n" +
-                    "Este link expira em 24 horas.\n\n" +
-                    "Se você não solicitou este cadastro, ignore este email.\n\n" +
-                    "Atenciosamente,\n" +
-                    "Equipe Sistema de Férias"
-            );
-
-            mailSender.send(message);
-            log.info("Email de confirmação enviado para: {}", email);
-        } catch (Exception e) {
-            log.error("Erro ao enviar email de confirmação para {}: {}", email, e.getMessage());
-            // Em desenvolvimento, não falhar por causa de email
-        }
+        enfileirar("confirmacao", email,
+                "Confirme seu cadastro - Sistema de Férias",
+                "Olá " + nome + ",\n\n" +
+                "Obrigado por se cadastrar no Sistema de Gestão de Férias!\n\n" +
+                "Clique no link abaixo para confirmar seu email:\n" +
+                frontendUrl + "/confirmar-email?token=" + token + "\n\n" +
+                "Este link expira em 24 horas.\n\n" +
+                "Se você não solicitou este cadastro, ignore este email.\n\n" +
+                "Atenciosamente,\n" +
+                "Equipe Sistema de Férias"
+        );
     }
 
-    @Async
+    @Transactional
     public void enviarNotificacaoSolicitacao(String emailGestor, String nomeGestor, String nomeFuncionario, String periodo) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(emailGestor);
-            message.setSubject("Nova solicitação de férias pendente");
-            message.setText(
-                    "Olá " + nomeGestor + ",\n\n" +
-                    "Você tem uma nova solicitação de férias para aprovar:\n\n" +
-                    "Funcionário: " + nomeFuncionario + "\n" +
-                    "Período: " + periodo + "\n\n" +
-                    "Acesse o sistema para aprovar ou rejeitar a solicitação.\n\n" +
-                    "Atenciosamente,\n" +
-                    "Sistema de Férias"
-            );
-
-            mailSender.send(message);
-            log.info("Notificação de solicitação enviada para: {}", emailGestor);
-        } catch (Exception e) {
-            log.error("Erro ao enviar notificação para {}: {}", emailGestor, e.getMessage());
-        }
+        enfileirar("solicitacao", emailGestor,
+                "Nova solicitação de férias pendente",
+                "Olá " + nomeGestor + ",\n\n" +
+                "Você tem uma nova solicitação de férias para aprovar:\n\n" +
+                "Funcionário: " + nomeFuncionario + "\n" +
+                "Período: " + periodo + "\n\n" +
+                "Acesse o sistema para aprovar ou rejeitar a solicitação.\n\n" +
+                "Atenciosamente,\n" +
+                "Sistema de Férias"
+        );
     }
 
-    @Async
+    @Transactional
     public void enviarNotificacaoAprovacao(String email, String nome, String periodo, boolean aprovado, String motivo) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(email);
-            message.setSubject("Sua solicitação de férias foi " + (aprovado ? "aprovada" : "rejeitada"));
+        salvar(notificacaoAprovacao(email, nome, periodo, aprovado, motivo));
+    }
 
-            String texto = "Olá " + nome + ",\n\n" +
-                    "Sua solicitação de férias para o período " + periodo + " foi " +
-                    (aprovado ? "APROVADA" : "REJEITADA") + ".\n\n";
+    // Enfileira várias notificações de uma vez (um único flush em lote)
+    @Transactional
+    public void enviarNotificacoes(List<EmailOutbox> notificacoes) {
+        emailOutboxRepository.saveAll(notificacoes);
+        log.debug("{} emails enfileirados", notificacoes.size());
+    }
 
-            if (!aprovado && motivo != null && !motivo.isEmpty()) {
-                texto += "Motivo: " + motivo + "\n\n";
-            }
+    public EmailOutbox notificacaoAprovacao(String email, String nome, String periodo, boolean aprovado, String motivo) {
+        String texto = "Olá " + nome + ",\n\n" +
+                "Sua solicitação de férias para o período " + periodo + " foi " +
+                (aprovado ? "APROVADA" : "REJEITADA") + ".\n\n";
 
-            texto += "Atenciosamente,\n" +
-                    "Sistema de Férias";
+        if (!aprovado && motivo != null && !motivo.isEmpty()) {
+            texto += "Motivo: " + motivo + "\n\n";
+        }
 
-            message.setText(texto);
+        texto += "Atenciosamente,\n" +
+                "Sistema de Férias";
 
-            mailSender.send(message);
-            log.info("Notificação de {} enviada para: {}", aprovado ? "aprovação" : "rejeição", email);
-        } catch (Exception e) {
-            log.error("Erro ao enviar notificação para {}: {}", email, e.getMessage());
-        }
+        return criar(aprovado ? "aprovacao" : "rejeicao", email,
+                "Sua solicitação de férias foi " + (aprovado ? "aprovada" : "rejeitada"),
+                texto);
+    }
+
+    private void enfileirar(String tipo, String destinatario, String assunto, String corpo) {
+        salvar(criar(tipo, destinatario, assunto, corpo));
+    }
+
+    private void salvar(EmailOutbox email) {
+        emailOutboxRepository.save(email);
+        log.debug("Email de {} enfileirado para: {}", email.getTipo(), email.getDestinatario());
+    }
+
+    private EmailOutbox criar(String tipo, String destinatario, String assunto, String corpo) {
+        return EmailOutbox.builder()
+                .tipo(tipo)
+                .destinatario(destinatario)
+                .assunto(assunto)
+                .corpo(corpo)
+                .build();
     }
 }
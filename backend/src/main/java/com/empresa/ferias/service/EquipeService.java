@@ -18,6 +18,10 @@ public class EquipeService {
 
     private final EquipeRepository equipeRepository;
     private final UsuarioRepository usuarioRepository;
+    private final CalendarioEquipeService calendarioEquipeService;
+    private final RelatorioService relatorioService;
+    private final MembrosGestorCache membrosGestorCache;
+    private final VersoesRecursos versoesRecursos;
 
     public List<EquipeDTO> listarTodas() {
         return equipeRepository.findAll().stream()
@@ -57,6 +61,20 @@ public class EquipeService {
         return EquipeDTO.fromEntity(equipeRepository.save(equipe));
     }
 
+    @Transactional
+    public EquipeDTO definirMaxAusentesPorDia(Long equipeId, Integer maxAusentesPorDia) {
+        if (maxAusentesPorDia != null && maxAusentesPorDia < 1) {
+            throw new RuntimeException("O limite de ausentes por dia deve ser maior que zero");
+        }
+
+        Equipe equipe = equipeRepository.findById(equipeId)
+                .orElseThrow(() -> new RuntimeException("Equipe não encontrada"));
+
+        equipe.setMaxAusentesPorDia(maxAusentesPorDia);
+        versoesRecursos.alterouUsuarios(equipeRepository.findMembroIds(equipeId));
+        return EquipeDTO.fromEntity(equipeRepository.save(equipe));
+    }
+
     @Transactional
     public EquipeDTO adicionarMembro(Long equipeId, Long usuarioId) {
         Equipe equipe = equipeRepository.findById(equipeId)
@@ -66,6 +84,10 @@ public class EquipeService {
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
         equipe.adicionarMembro(usuario);
+        calendarioEquipeService.invalidarEquipe(equipeId);
+        relatorioService.invalidarEquipe(equipeId);
+        membrosGestorCache.invalidar(equipe.getGestor() != null ? equipe.getGestor().getId() : null);
+        versoesRecursos.alterouUsuario(usuarioId);
         return EquipeDTO.fromEntity(equipeRepository.save(equipe));
     }
 
@@ -78,6 +100,10 @@ public class EquipeService {
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
         equipe.removerMembro(usuario);
+        calendarioEquipeService.invalidarEquipe(equipeId);
+        relatorioService.invalidarEquipe(equipeId);
+        membrosGestorCache.invalidar(equipe.getGestor() != null ? equipe.getGestor().getId() : null);
+        versoesRecursos.alterouUsuario(usuarioId);
         return EquipeDTO.fromEntity(equipeRepository.save(equipe));
     }
 }
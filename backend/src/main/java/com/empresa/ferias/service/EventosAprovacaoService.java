@@ -0,0 +1,207 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.dto.EventoSolicitacaoDTO;
+import com.empresa.ferias.event.SolicitacaoAlteradaEvent;
+import com.empresa.ferias.model.StatusSolicitacao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Barramento em processo que entrega por SSE as mudanças em solicitações
+ * pendentes aos gestores conectados, cada um recebendo só as dos membros
+ * das suas equipes.
+ * <p>
+ * Cada assinante tem um buffer limitado, drenado por uma tarefa no executor
+ * assíncrono só enquanto houver eventos, sem thread parada por conexão. Um
+ * cliente lento nunca atrasa quem publica: quando o buffer enche, o evento
+ * mais antigo é descartado e o cliente recebe um evento "resync", indicando
+ * que deve recarregar a lista completa.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventosAprovacaoService {
+
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final MeterRegistry meterRegistry;
+    private final MembrosGestorCache membrosGestorCache;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Value("${app.sse.timeout}")
+    private long timeout;
+
+    @Value("${app.sse.buffer}")
+    private int capacidadeBuffer;
+
+    @PostConstruct
+    void registrarMetricas() {
+        meterRegistry.gaugeCollectionSize("sse.aprovacoes.assinantes", Tags.empty(), assinantes);
+    }
+
+    public SseEmitter inscrever(Long gestorId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Assinante assinante = new Assinante(gestorId, emitter);
+
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(erro -> assinantes.remove(assinante));
+
+        assinantes.add(assinante);
+        assinante.enfileirar(SseEmitter.event().name("conectado").data(sequencia.get()));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarSolicitacao(SolicitacaoAlteradaEvent evento) {
+        EventoSolicitacaoDTO.Tipo tipo = tipoDoEvento(evento);
+        if (tipo == null || assinantes.isEmpty()) {
+            return;
+        }
+
+        EventoSolicitacaoDTO delta = new EventoSolicitacaoDTO(tipo, evento.getSolicitacao());
+        String id = String.valueOf(sequencia.incrementAndGet());
+        Long usuarioId = evento.getSolicitacao().getUsuarioId();
+        for (Assinante assinante : assinantes) {
+            // Mesmo escopo da lista de pendentes: só membros das equipes do gestor
+            if (!membrosGestorCache.gerencia(assinante.gestorId, usuarioId)) {
+                continue;
+            }
+            assinante.enfileirar(SseEmitter.event()
+                    .id(id)
+                    .name("solicitacao")
+                    .data(delta, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Comentário SSE periódico: mantém proxies abertos e detecta conexões mortas
+    @Scheduled(fixedRateString = "${app.sse.heartbeat}")
+    public void heartbeat() {
+        assinantes.forEach(Assinante::heartbeat);
+    }
+
+    // Só interessa à lista de pendentes o que entra ou sai de PENDENTE
+    private static EventoSolicitacaoDTO.Tipo tipoDoEvento(SolicitacaoAlteradaEvent evento) {
+        if (evento.getStatusAnterior() == null) {
+            return EventoSolicitacaoDTO.Tipo.CRIADA;
+        }
+        if (evento.getStatusAnterior() != StatusSolicitacao.PENDENTE) {
+            return null;
+        }
+        return switch (evento.getSolicitacao().getStatus()) {
+            case APROVADO -> EventoSolicitacaoDTO.Tipo.APROVADA;
+            case REJEITADO -> EventoSolicitacaoDTO.Tipo.REJEITADA;
+            case CANCELADO -> EventoSolicitacaoDTO.Tipo.CANCELADA;
+            default -> null;
+        };
+    }
+
+    private final class Assinante {
+
+        private final Long gestorId;
+        private final SseEmitter emitter;
+
+        // Protegidos por synchronized(this)
+        private final ArrayDeque<SseEmitter.SseEventBuilder> fila = new ArrayDeque<>();
+        private boolean drenando;
+        private boolean perdeuEventos;
+
+        Assinante(Long gestorId, SseEmitter emitter) {
+            this.gestorId = gestorId;
+            this.emitter = emitter;
+        }
+
+        void enfileirar(SseEmitter.SseEventBuilder evento) {
+            boolean agendar;
+            synchronized (this) {
+                if (fila.size() >= capacidadeBuffer) {
+                    fila.pollFirst();
+                    perdeuEventos = true;
+                    meterRegistry.counter("sse.aprovacoes.descartados").increment();
+                }
+                fila.addLast(evento);
+                agendar = !drenando;
+                drenando = true;
+            }
+            if (agendar) {
+                agendarDrenagem();
+            }
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (!fila.isEmpty()) {
+                    return;
+                }
+            }
+            enfileirar(SseEmitter.event().comment("ping"));
+        }
+
+        private void agendarDrenagem() {
+            try {
+                applicationTaskExecutor.execute(this::drenar);
+            } catch (TaskRejectedException e) {
+                synchronized (this) {
+                    drenando = false;
+                    perdeuEventos = true;
+                    fila.clear();
+                }
+                log.warn("Executor recusou a entrega de eventos ao gestor {}", gestorId);
+            }
+        }
+
+        private void drenar() {
+            while (true) {
+                SseEmitter.SseEventBuilder evento;
+                synchronized (this) {
+                    if (perdeuEventos) {
+                        // Os deltas restantes não bastam para reconstruir a lista
+                        perdeuEventos = false;
+                        fila.clear();
+                        evento = SseEmitter.event().name("resync").data(sequencia.get());
+                    } else {
+                        evento = fila.pollFirst();
+                        if (evento == null) {
+                            drenando = false;
+                            return;
+                        }
+                    }
+                }
+
+                try {
+                    emitter.send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    // IOException: o container notifica o erro e o emitter é concluído por ele
+                    encerrar();
+                    return;
+                }
+            }
+        }
+
+        private void encerrar() {
+            assinantes.remove(this);
+            synchronized (this) {
+                fila.clear();
+                drenando = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.dto.FiltroSolicitacoes;
+import com.empresa.ferias.model.Solicitacao;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.empresa.ferias.repository.SolicitacaoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Exportação das solicitações para a folha de pagamento em CSV ou XLSX.
+ * <p>
+ * As linhas são lidas com um cursor forward-only de uma {@link StatelessSession}
+ * (sem contexto de persistência nem entidades gerenciadas) e escritas direto no
+ * OutputStream da resposta; o XLSX usa o {@link SXSSFWorkbook}, que mantém só
+ * uma janela de linhas em memória e despeja o restante em arquivo temporário.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportacaoService {
+
+    public enum Formato { CSV, XLSX }
+
+    private static final int TAMANHO_LOTE_CURSOR = 500;
+    private static final int JANELA_XLSX = 200;
+
+    private static final String CONSULTA =
+            "SELECT s.id, u.nomeCompleto, u.email, u.regiao, t.nome, s.dataInicio, s.dataFim, s.diasUteis, " +
+            "s.status, a.nomeCompleto, s.dataAprovacao " +
+            "FROM Solicitacao s JOIN s.usuario u JOIN s.tipoAusencia t LEFT JOIN s.aprovador a " +
+            "WHERE 1 = 1 " +
+            SolicitacaoRepository.FILTROS +
+            "AND (:tipoAusenciaId IS NULL OR t.id = :tipoAusenciaId) " +
+            "ORDER BY s.dataInicio, u.nomeCompleto, s.id";
+
+    private static final String[] CABECALHO = {
+            "ID", "Funcionário", "Email", "Tipo de ausência", "Início", "Fim",
+            "Dias úteis", "Dias úteis no período", "Status", "Aprovador", "Data de aprovação"
+    };
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CalendarioDiasUteis calendarioDiasUteis;
+
+    public void exportar(FiltroSolicitacoes filtro, Formato formato, OutputStream out) throws IOException {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (StatelessSession sessao = sessionFactory.openStatelessSession();
+             Escritor escritor = formato == Formato.XLSX ? new EscritorXlsx(out) : new EscritorCsv(out)) {
+
+            // O driver do Postgres só usa cursor (fetch size) com autocommit desligado;
+            // a transação só lê, então termina sempre em rollback
+            Transaction transacao = sessao.beginTransaction();
+            try (ScrollableResults<Object[]> linhas = sessao.createQuery(CONSULTA, Object[].class)
+                    .setParameter("status", filtro.getStatus())
+                    .setParameter("inicio", filtro.getInicio())
+                    .setParameter("fim", filtro.getFim())
+                    .setParameter("equipeId", filtro.getEquipeId())
+                    .setParameter("gestorId", filtro.getGestorId())
+                    .setParameter("tipoAusenciaId", filtro.getTipoAusenciaId())
+                    .setFetchSize(TAMANHO_LOTE_CURSOR)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+
+                escritor.linha(CABECALHO);
+                while (linhas.next()) {
+                    escritor.linha(converter(linhas.get(), filtro));
+                }
+            } finally {
+                transacao.rollback();
+            }
+        }
+    }
+
+    private Object[] converter(Object[] linha, FiltroSolicitacoes filtro) {
+        String regiao = (String) linha[3];
+        LocalDate inicio = (LocalDate) linha[5];
+        LocalDate fim = (LocalDate) linha[6];
+
+        // Período de apuração: só os dias úteis da ausência dentro de [inicio, fim] do filtro
+        LocalDate de = filtro.getInicio() != null && filtro.getInicio().isAfter(inicio) ? filtro.getInicio() : inicio;
+        LocalDate ate = filtro.getFim() != null && filtro.getFim().isBefore(fim) ? filtro.getFim() : fim;
+
+        return new Object[]{
+                linha[0], linha[1], linha[2], linha[4], inicio, fim,
+                Solicitacao.calcularDiasTotal((Integer) linha[7], inicio, fim),
+                calendarioDiasUteis.contar(regiao, de, ate),
+                ((StatusSolicitacao) linha[8]).name(), linha[9], linha[10]
+        };
+    }
+
+    private interface Escritor extends AutoCloseable {
+
+        void linha(Object[] valores) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    // Separador ";" e BOM UTF-8: é o que o Excel em português abre sem assistente
+    private static final class EscritorCsv implements Escritor {
+
+        private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        private final BufferedWriter writer;
+
+        EscritorCsv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        public void linha(Object[] valores) throws IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    writer.write(';');
+                }
+                writer.write(formatar(valores[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        private static String formatar(Object valor) {
+            if (valor == null) {
+                return "";
+            }
+            String texto = valor instanceof LocalDateTime dataHora ? DATA_HORA.format(dataHora) : valor.toString();
+            // Nomes vêm dos usuários: evita que o Excel interprete o texto como fórmula
+            if (valor instanceof String && !texto.isEmpty() && "=+-@".indexOf(texto.charAt(0)) >= 0) {
+                texto = "'" + texto;
+            }
+            if (texto.indexOf(';') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+                return '"' + texto.replace("\"", "\"\"") + '"';
+            }
+            return texto;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class EscritorXlsx implements Escritor {
+
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook = new SXSSFWorkbook(JANELA_XLSX);
+        private final SXSSFSheet planilha;
+        private final CellStyle estiloData;
+        private final CellStyle estiloDataHora;
+        private int proximaLinha;
+
+        EscritorXlsx(OutputStream out) {
+            this.out = out;
+            workbook.setCompressTempFiles(true);
+            this.planilha = workbook.createSheet("Ausências");
+            this.estiloData = workbook.createCellStyle();
+            estiloData.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy"));
+            this.estiloDataHora = workbook.createCellStyle();
+            estiloDataHora.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/mm/yyyy hh:mm"));
+        }
+
+        @Override
+        public void linha(Object[] valores) {
+            Row row = planilha.createRow(proximaLinha++);
+            for (int i = 0; i < valores.length; i++) {
+                Object valor = valores[i];
+                if (valor == null) {
+                    continue;
+                }
+                Cell celula = row.createCell(i);
+                if (valor instanceof Number numero) {
+                    celula.setCellValue(numero.doubleValue());
+                } else if (valor instanceof LocalDate data) {
+                    celula.setCellValue(data);
+                    celula.setCellStyle(estiloData);
+                } else if (valor instanceof LocalDateTime dataHora) {
+                    celula.setCellValue(dataHora);
+                    celula.setCellStyle(estiloDataHora);
+                } else {
+                    celula.setCellValue(valor.toString());
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                workbook.write(out);
+                out.flush();
+            } finally {
+                // Remove os arquivos temporários das linhas já despejadas
+                workbook.dispose();
+                workbook.close();
+            }
+        }
+    }
+}
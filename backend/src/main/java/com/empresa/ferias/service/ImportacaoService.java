@@ -0,0 +1,417 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.dto.RegistroImportacao;
+import com.empresa.ferias.dto.ResultadoImportacaoDTO;
+import com.empresa.ferias.model.Role;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Importação em massa de usuários, membros de equipe, saldos e solicitações
+ * históricas a partir de NDJSON (um {@link RegistroImportacao} por linha).
+ * <p>
+ * O arquivo é lido linha a linha e gravado em lotes de app.importacao.tamanho-lote
+ * linhas, cada lote em uma transação com inserts em lote via JDBC, sem passar
+ * pelo contexto de persistência; a memória usada não depende do tamanho do
+ * arquivo. Linhas inválidas são reportadas com o número da linha e não impedem
+ * as demais. Linhas de um lote podem referenciar usuários criados no mesmo lote
+ * ou em lotes anteriores.
+ */
+@Service
+@Slf4j
+public class ImportacaoService {
+
+    // Senhas chegam já em BCrypt: calcular o hash de cada usuário tornaria a carga lenta
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private static final String INSERIR_USUARIO =
+            "INSERT INTO usuarios (nome_completo, email, senha_hash, is_ativo, data_admissao, cargo, regiao, role, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (email) DO NOTHING";
+
+    private static final String INSERIR_MEMBRO =
+            "INSERT INTO membros_equipe (equipe_id, usuario_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String GRAVAR_SALDO =
+            "INSERT INTO saldo_ferias (usuario_id, ano_referencia, dias_totais, dias_usados, dias_transferidos, versao) " +
+            "VALUES (?, ?, ?, ?, 0, 0) ON CONFLICT (usuario_id, ano_referencia) DO UPDATE SET " +
+            "dias_totais = EXCLUDED.dias_totais, dias_usados = EXCLUDED.dias_usados, versao = saldo_ferias.versao + 1";
+
+    private static final String INSERIR_SOLICITACAO =
+            "INSERT INTO solicitacoes (usuario_id, tipo_ausencia_id, data_inicio, data_fim, dias_uteis, status, observacao, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CalendarioDiasUteis calendarioDiasUteis;
+    private final CalendarioEquipeService calendarioEquipeService;
+    private final RelatorioService relatorioService;
+    private final IndiceConflitosService indiceConflitosService;
+    private final MembrosGestorCache membrosGestorCache;
+    private final VersoesRecursos versoesRecursos;
+    private final int tamanhoLote;
+    private final int maximoErros;
+
+    public ImportacaoService(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            CalendarioDiasUteis calendarioDiasUteis,
+            CalendarioEquipeService calendarioEquipeService,
+            RelatorioService relatorioService,
+            IndiceConflitosService indiceConflitosService,
+            MembrosGestorCache membrosGestorCache,
+            VersoesRecursos versoesRecursos,
+            @Value("${app.importacao.tamanho-lote}") int tamanhoLote,
+            @Value("${app.importacao.maximo-erros}") int maximoErros
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.calendarioDiasUteis = calendarioDiasUteis;
+        this.calendarioEquipeService = calendarioEquipeService;
+        this.relatorioService = relatorioService;
+        this.indiceConflitosService = indiceConflitosService;
+        this.membrosGestorCache = membrosGestorCache;
+        this.versoesRecursos = versoesRecursos;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoErros = maximoErros;
+    }
+
+    public ResultadoImportacaoDTO importar(InputStream entrada) throws IOException {
+        long inicio = System.nanoTime();
+        Resultado resultado = new Resultado();
+        Referencias referencias = carregarReferencias();
+        List<Linha> lote = new ArrayList<>(tamanhoLote);
+
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String texto;
+            int numero = 0;
+            while ((texto = leitor.readLine()) != null) {
+                numero++;
+                if (texto.isBlank()) {
+                    continue;
+                }
+                resultado.linhasLidas++;
+                try {
+                    lote.add(new Linha(numero, objectMapper.readValue(texto, RegistroImportacao.class)));
+                } catch (JsonProcessingException e) {
+                    resultado.erro(numero, "JSON inválido: " + e.getOriginalMessage());
+                }
+                if (lote.size() == tamanhoLote) {
+                    processarLote(lote, referencias, resultado);
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            processarLote(lote, referencias, resultado);
+        }
+
+        log.info("Importação: {} linhas, {} importadas, {} com erro em {} ms", resultado.linhasLidas,
+                resultado.importados, resultado.comErro, (System.nanoTime() - inicio) / 1_000_000);
+        return resultado.toDTO();
+    }
+
+    private void processarLote(List<Linha> lote, Referencias referencias, Resultado resultado) {
+        Resultado doLote = new Resultado();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                gravarLote(lote, referencias, doLote);
+                if (doLote.importados > 0) {
+                    // Cada lote confirmado já fica visível: os caches não podem esperar o fim do arquivo,
+                    // que pode nunca chegar se um lote seguinte falhar
+                    versoesRecursos.alterouTodos();
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            invalidarCaches();
+                        }
+                    });
+                }
+            });
+            resultado.somar(doLote);
+        } catch (DataAccessException e) {
+            // O lote inteiro voltou atrás: nenhuma linha dele foi gravada
+            log.warn("Lote de importação rejeitado pelo banco (linhas {} a {})",
+                    lote.get(0).numero(), lote.get(lote.size() - 1).numero(), e);
+            String mensagem = "Lote rejeitado pelo banco: " + e.getMostSpecificCause().getMessage();
+            lote.forEach(linha -> resultado.erro(linha.numero(), mensagem));
+        }
+    }
+
+    private void gravarLote(List<Linha> lote, Referencias referencias, Resultado resultado) {
+        Map<RegistroImportacao.Tipo, List<Linha>> porTipo = new HashMap<>();
+        for (Linha linha : lote) {
+            String erro = validar(linha.registro());
+            if (erro != null) {
+                resultado.erro(linha.numero(), erro);
+            } else {
+                porTipo.computeIfAbsent(linha.registro().getTipo(), t -> new ArrayList<>()).add(linha);
+            }
+        }
+
+        // Usuários primeiro, para que membros, saldos e solicitações do mesmo lote os encontrem
+        gravarUsuarios(porTipo.getOrDefault(RegistroImportacao.Tipo.USUARIO, List.of()), resultado);
+
+        Set<String> emails = new HashSet<>();
+        porTipo.forEach((tipo, linhas) -> {
+            if (tipo != RegistroImportacao.Tipo.USUARIO) {
+                linhas.forEach(linha -> emails.add(linha.registro().getEmail()));
+            }
+        });
+        Map<String, UsuarioExistente> usuarios = buscarUsuarios(emails);
+
+        gravarMembros(porTipo.getOrDefault(RegistroImportacao.Tipo.MEMBRO, List.of()), usuarios, referencias, resultado);
+        gravarSaldos(porTipo.getOrDefault(RegistroImportacao.Tipo.SALDO, List.of()), usuarios, resultado);
+        gravarSolicitacoes(porTipo.getOrDefault(RegistroImportacao.Tipo.SOLICITACAO, List.of()), usuarios,
+                referencias, resultado);
+    }
+
+    private void gravarUsuarios(List<Linha> linhas, Resultado resultado) {
+        if (linhas.isEmpty()) {
+            return;
+        }
+
+        Set<String> emails = new HashSet<>();
+        linhas.forEach(linha -> emails.add(linha.registro().getEmail()));
+        Set<String> existentes = buscarUsuarios(emails).keySet();
+
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        Set<String> vistos = new HashSet<>();
+        List<Object[]> inserts = new ArrayList<>(linhas.size());
+        for (Linha linha : linhas) {
+            RegistroImportacao r = linha.registro();
+            if (existentes.contains(r.getEmail()) || !vistos.add(r.getEmail())) {
+                resultado.erro(linha.numero(), "Email já cadastrado: " + r.getEmail());
+                continue;
+            }
+            inserts.add(new Object[]{
+                    r.getNomeCompleto(), r.getEmail(), r.getSenhaHash(), r.getAtivo() == null || r.getAtivo(),
+                    r.getDataAdmissao() != null ? Date.valueOf(r.getDataAdmissao()) : null, r.getCargo(),
+                    r.getRegiao() != null && !r.getRegiao().isBlank() ? r.getRegiao().trim().toUpperCase() : null,
+                    (r.getRole() != null ? r.getRole() : Role.USER).name(), agora});
+        }
+
+        jdbcTemplate.batchUpdate(INSERIR_USUARIO, inserts);
+        resultado.importados += inserts.size();
+    }
+
+    private void gravarMembros(List<Linha> linhas, Map<String, UsuarioExistente> usuarios,
+                               Referencias referencias, Resultado resultado) {
+        List<Object[]> inserts = new ArrayList<>(linhas.size());
+        for (Linha linha : linhas) {
+            RegistroImportacao r = linha.registro();
+            UsuarioExistente usuario = usuarios.get(r.getEmail());
+            Long equipeId = referencias.equipes().get(r.getEquipe().trim().toLowerCase());
+            if (usuario == null) {
+                resultado.erro(linha.numero(), "Usuário não encontrado: " + r.getEmail());
+            } else if (equipeId == null) {
+                resultado.erro(linha.numero(), "Equipe não encontrada: " + r.getEquipe());
+            } else {
+                inserts.add(new Object[]{equipeId, usuario.id()});
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERIR_MEMBRO, inserts);
+            resultado.importados += inserts.size();
+        }
+    }
+
+    private void gravarSaldos(List<Linha> linhas, Map<String, UsuarioExistente> usuarios, Resultado resultado) {
+        List<Object[]> inserts = new ArrayList<>(linhas.size());
+        for (Linha linha : linhas) {
+            RegistroImportacao r = linha.registro();
+            UsuarioExistente usuario = usuarios.get(r.getEmail());
+            if (usuario == null) {
+                resultado.erro(linha.numero(), "Usuário não encontrado: " + r.getEmail());
+                continue;
+            }
+            int diasUsados = r.getDiasUsados() != null ? r.getDiasUsados() : 0;
+            inserts.add(new Object[]{usuario.id(), r.getAno(), r.getDiasTotais(), diasUsados});
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(GRAVAR_SALDO, inserts);
+            resultado.importados += inserts.size();
+        }
+    }
+
+    private void gravarSolicitacoes(List<Linha> linhas, Map<String, UsuarioExistente> usuarios,
+                                    Referencias referencias, Resultado resultado) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>(linhas.size());
+        for (Linha linha : linhas) {
+            RegistroImportacao r = linha.registro();
+            UsuarioExistente usuario = usuarios.get(r.getEmail());
+            Long tipoId = referencias.tiposAusencia().get(r.getTipoAusencia().trim().toLowerCase());
+            if (usuario == null) {
+                resultado.erro(linha.numero(), "Usuário não encontrado: " + r.getEmail());
+            } else if (tipoId == null) {
+                resultado.erro(linha.numero(), "Tipo de ausência não encontrado: " + r.getTipoAusencia());
+            } else {
+                int diasUteis = calendarioDiasUteis.contar(usuario.regiao(), r.getDataInicio(), r.getDataFim());
+                StatusSolicitacao status = r.getStatus() != null ? r.getStatus() : StatusSolicitacao.APROVADO;
+                inserts.add(new Object[]{usuario.id(), tipoId, Date.valueOf(r.getDataInicio()),
+                        Date.valueOf(r.getDataFim()), diasUteis, status.name(), r.getObservacao(), agora});
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERIR_SOLICITACAO, inserts);
+            resultado.importados += inserts.size();
+        }
+    }
+
+    // Retorna a mensagem de erro, ou null se o registro tem o necessário para o seu tipo
+    private static String validar(RegistroImportacao r) {
+        if (r.getTipo() == null) {
+            return "Campo 'tipo' obrigatório (usuario, membro, saldo ou solicitacao)";
+        }
+        if (r.getEmail() == null || r.getEmail().isBlank()) {
+            return "Campo 'email' obrigatório";
+        }
+        r.setEmail(r.getEmail().trim());
+
+        return switch (r.getTipo()) {
+            case USUARIO -> {
+                if (r.getNomeCompleto() == null || r.getNomeCompleto().isBlank()) {
+                    yield "Campo 'nomeCompleto' obrigatório";
+                }
+                if (r.getSenhaHash() == null || !BCRYPT.matcher(r.getSenhaHash()).matches()) {
+                    yield "Campo 'senhaHash' deve ser um hash BCrypt";
+                }
+                yield null;
+            }
+            case MEMBRO -> r.getEquipe() == null || r.getEquipe().isBlank() ? "Campo 'equipe' obrigatório" : null;
+            case SALDO -> {
+                if (r.getAno() == null || r.getDiasTotais() == null) {
+                    yield "Campos 'ano' e 'diasTotais' obrigatórios";
+                }
+                int diasUsados = r.getDiasUsados() != null ? r.getDiasUsados() : 0;
+                if (r.getDiasTotais() < 0 || diasUsados < 0 || diasUsados > r.getDiasTotais()) {
+                    yield "Dias usados devem estar entre 0 e o total de dias";
+                }
+                yield null;
+            }
+            case SOLICITACAO -> {
+                if (r.getTipoAusencia() == null || r.getDataInicio() == null || r.getDataFim() == null) {
+                    yield "Campos 'tipoAusencia', 'dataInicio' e 'dataFim' obrigatórios";
+                }
+                if (r.getDataFim().isBefore(r.getDataInicio())) {
+                    yield "Data fim deve ser maior ou igual à data início";
+                }
+                yield null;
+            }
+        };
+    }
+
+    private Map<String, UsuarioExistente> buscarUsuarios(Set<String> emails) {
+        Map<String, UsuarioExistente> usuarios = new HashMap<>();
+        if (emails.isEmpty()) {
+            return usuarios;
+        }
+        namedJdbcTemplate.query("SELECT id, email, regiao FROM usuarios WHERE email IN (:emails)",
+                Map.of("emails", emails),
+                rs -> {
+                    usuarios.put(rs.getString("email"),
+                            new UsuarioExistente(rs.getLong("id"), rs.getString("regiao")));
+                });
+        return usuarios;
+    }
+
+    // Equipes e tipos de ausência são poucos: carregados uma vez por importação
+    private Referencias carregarReferencias() {
+        Map<String, Long> equipes = new HashMap<>();
+        jdbcTemplate.query("SELECT id, nome FROM equipes",
+                rs -> {
+                    equipes.put(rs.getString("nome").trim().toLowerCase(), rs.getLong("id"));
+                });
+
+        Map<String, Long> tipos = new HashMap<>();
+        jdbcTemplate.query("SELECT id, nome FROM tipos_ausencia",
+                rs -> {
+                    tipos.put(rs.getString("nome").trim().toLowerCase(), rs.getLong("id"));
+                });
+        return new Referencias(equipes, tipos);
+    }
+
+    // Os caches em memória são montados a partir do banco: descartar é mais
+    // barato que aplicar milhares de alterações uma a uma
+    private void invalidarCaches() {
+        calendarioEquipeService.invalidarTodos();
+        relatorioService.invalidarTodos();
+        indiceConflitosService.invalidarTodos();
+        membrosGestorCache.invalidarTodos();
+    }
+
+    private record Linha(int numero, RegistroImportacao registro) {
+    }
+
+    private record UsuarioExistente(Long id, String regiao) {
+    }
+
+    private record Referencias(Map<String, Long> equipes, Map<String, Long> tiposAusencia) {
+    }
+
+    private final class Resultado {
+
+        private int linhasLidas;
+        private int importados;
+        private int comErro;
+        private final List<ResultadoImportacaoDTO.ErroLinha> erros = new ArrayList<>();
+
+        void erro(int linha, String mensagem) {
+            comErro++;
+            if (erros.size() < maximoErros) {
+                erros.add(new ResultadoImportacaoDTO.ErroLinha(linha, mensagem));
+            }
+        }
+
+        void somar(Resultado outro) {
+            importados += outro.importados;
+            comErro += outro.comErro - outro.erros.size();
+            outro.erros.forEach(e -> erro(e.getLinha(), e.getMensagem()));
+        }
+
+        ResultadoImportacaoDTO toDTO() {
+            return ResultadoImportacaoDTO.builder()
+                    .linhasLidas(linhasLidas)
+                    .importados(importados)
+                    .comErro(comErro)
+                    .erros(erros)
+                    .errosTruncados(comErro > erros.size())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.dto.SolicitacaoDTO;
+import com.empresa.ferias.event.SolicitacaoAlteradaEvent;
+import com.empresa.ferias.model.Solicitacao;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.empresa.ferias.repository.SolicitacaoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice em memória dos períodos ativos (PENDENTE/APROVADO) de cada usuário,
+ * usado para detectar conflitos de datas sem ir ao banco.
+ * <p>
+ * Como a própria regra de conflito impede sobreposição entre solicitações ativas,
+ * os intervalos de um usuário formam um conjunto ordenado e disjunto: basta olhar
+ * o intervalo com maior início &lt;= fim para saber se há sobreposição (O(log n)).
+ * Se o índice apontar um conflito que o banco não confirma, ou se os dados
+ * carregados não forem disjuntos, o usuário volta a ser consultado via query.
+ * <p>
+ * O índice só enxerga as alterações feitas nesta instância: a resposta "sem
+ * conflito" não é conferida no banco. Com mais de uma instância da API,
+ * app.conflitos.indice-habilitado deve ser false (toda verificação vai ao
+ * banco); app.conflitos.ttl limita por quanto tempo uma entrada pode divergir.
+ */
+@Service
+@Slf4j
+public class IndiceConflitosService {
+
+    private static final Set<StatusSolicitacao> STATUS_ATIVOS =
+            EnumSet.of(StatusSolicitacao.PENDENTE, StatusSolicitacao.APROVADO);
+
+    private final SolicitacaoRepository solicitacaoRepository;
+    private final boolean habilitado;
+    private final Cache<Long, IntervalosUsuario> indice;
+
+    // Incrementado a cada alteração aplicada; uma carga feita enquanto ele mudou não é guardada
+    private final AtomicLong alteracoes = new AtomicLong();
+
+    public IndiceConflitosService(
+            SolicitacaoRepository solicitacaoRepository,
+            @Value("${app.conflitos.indice-habilitado}") boolean habilitado,
+            @Value("${app.conflitos.tamanho-maximo}") long tamanhoMaximo,
+            @Value("${app.conflitos.ttl}") long ttl
+    ) {
+        this.solicitacaoRepository = solicitacaoRepository;
+        this.habilitado = habilitado;
+        this.indice = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+
+    public boolean possuiConflito(Long usuarioId, LocalDate inicio, LocalDate fim) {
+        if (!habilitado) {
+            return consultarBanco(usuarioId, inicio, fim);
+        }
+
+        Boolean conflito = intervalos(usuarioId).sobrepoe(inicio, fim);
+        if (conflito == null) {
+            // Dados do usuário não são disjuntos: usa a query diretamente
+            return consultarBanco(usuarioId, inicio, fim);
+        }
+        if (!conflito) {
+            return false;
+        }
+
+        // Conflito detectado em memória é confirmado no banco antes de rejeitar
+        boolean confirmado = consultarBanco(usuarioId, inicio, fim);
+        if (!confirmado) {
+            log.warn("Índice de conflitos divergente do banco para o usuário {}, reconstruindo", usuarioId);
+            invalidar(usuarioId);
+        }
+        return confirmado;
+    }
+
+    public void invalidar(Long usuarioId) {
+        alteracoes.incrementAndGet();
+        indice.invalidate(usuarioId);
+    }
+
+    public void invalidarTodos() {
+        alteracoes.incrementAndGet();
+        indice.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarSolicitacao(SolicitacaoAlteradaEvent evento) {
+        SolicitacaoDTO solicitacao = evento.getSolicitacao();
+        boolean ativaAntes = evento.getStatusAnterior() != null && STATUS_ATIVOS.contains(evento.getStatusAnterior());
+        boolean ativaAgora = STATUS_ATIVOS.contains(solicitacao.getStatus());
+
+        if (ativaAntes == ativaAgora) {
+            return;
+        }
+
+        // Usuários ainda não indexados serão carregados do banco na próxima consulta;
+        // uma carga em andamento é descartada pelo contador de alterações
+        alteracoes.incrementAndGet();
+        indice.asMap().computeIfPresent(solicitacao.getUsuarioId(), (usuarioId, intervalos) -> {
+            boolean consistente = ativaAgora
+                    ? intervalos.adicionar(solicitacao.getId(), solicitacao.getDataInicio(), solicitacao.getDataFim())
+                    : intervalos.remover(solicitacao.getId(), solicitacao.getDataInicio());
+            return consistente ? intervalos : null;
+        });
+    }
+
+    private boolean consultarBanco(Long usuarioId, LocalDate inicio, LocalDate fim) {
+        return !solicitacaoRepository.findConflitos(usuarioId, inicio, fim).isEmpty();
+    }
+
+    // A query roda fora do lock do mapa, para não segurar outras chaves do mesmo bin
+    private IntervalosUsuario intervalos(Long usuarioId) {
+        IntervalosUsuario intervalos = indice.getIfPresent(usuarioId);
+        if (intervalos != null) {
+            return intervalos;
+        }
+
+        long versao = alteracoes.get();
+        IntervalosUsuario carregados = carregar(usuarioId);
+        if (alteracoes.get() != versao) {
+            return carregados;
+        }
+        IntervalosUsuario existentes = indice.asMap().putIfAbsent(usuarioId, carregados);
+        return existentes != null ? existentes : carregados;
+    }
+
+    private IntervalosUsuario carregar(Long usuarioId) {
+        IntervalosUsuario intervalos = new IntervalosUsuario();
+        for (Solicitacao s : solicitacaoRepository.findByUsuarioIdAndStatusIn(usuarioId, STATUS_ATIVOS)) {
+            if (!intervalos.adicionar(s.getId(), s.getDataInicio(), s.getDataFim())) {
+                log.warn("Solicitações ativas sobrepostas para o usuário {}, índice desativado", usuarioId);
+                intervalos.desativar();
+                break;
+            }
+        }
+        return intervalos;
+    }
+
+    private record Intervalo(Long solicitacaoId, LocalDate fim) {
+    }
+
+    private static final class IntervalosUsuario {
+
+        private final TreeMap<LocalDate, Intervalo> porInicio = new TreeMap<>();
+        private boolean disjunto = true;
+
+        /** Retorna null quando o índice não pode responder para este usuário. */
+        synchronized Boolean sobrepoe(LocalDate inicio, LocalDate fim) {
+            if (!disjunto) {
+                return null;
+            }
+            Map.Entry<LocalDate, Intervalo> anterior = porInicio.floorEntry(fim);
+            return anterior != null && !anterior.getValue().fim().isBefore(inicio);
+        }
+
+        /** Retorna false se o novo intervalo violar a invariante de disjunção. */
+        synchronized boolean adicionar(Long solicitacaoId, LocalDate inicio, LocalDate fim) {
+            if (!disjunto) {
+                return true;
+            }
+            Intervalo existente = porInicio.get(inicio);
+            if (existente != null && existente.solicitacaoId().equals(solicitacaoId)) {
+                return true;
+            }
+            if (Boolean.TRUE.equals(sobrepoe(inicio, fim))) {
+                return false;
+            }
+            porInicio.put(inicio, new Intervalo(solicitacaoId, fim));
+            return true;
+        }
+
+        synchronized boolean remover(Long solicitacaoId, LocalDate inicio) {
+            if (!disjunto) {
+                // Força nova carga: a remoção pode ter desfeito a sobreposição
+                return false;
+            }
+            Intervalo existente = porInicio.get(inicio);
+            if (existente == null) {
+                // Já refletido pela carga do banco
+                return true;
+            }
+            if (!existente.solicitacaoId().equals(solicitacaoId)) {
+                return false;
+            }
+            porInicio.remove(inicio);
+            return true;
+        }
+
+        synchronized void desativar() {
+            disjunto = false;
+            porInicio.clear();
+        }
+    }
+}
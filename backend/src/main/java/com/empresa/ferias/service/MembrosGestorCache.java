@@ -0,0 +1,62 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.repository.EquipeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+/**
+ * Ids dos membros de todas as equipes de cada gestor. Deve ser invalidado
+ * sempre que membros ou o gestor de uma equipe mudarem.
+ */
+@Component
+public class MembrosGestorCache {
+
+    private final EquipeRepository equipeRepository;
+    private final Cache<Long, Set<Long>> porGestor;
+
+    public MembrosGestorCache(
+            EquipeRepository equipeRepository,
+            @Value("${app.membros-gestor.tamanho-maximo}") long tamanhoMaximo
+    ) {
+        this.equipeRepository = equipeRepository;
+        this.porGestor = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .build();
+    }
+
+    public Set<Long> membros(Long gestorId) {
+        return porGestor.get(gestorId, id -> Set.copyOf(equipeRepository.findMembroIdsByGestorId(id)));
+    }
+
+    public boolean gerencia(Long gestorId, Long usuarioId) {
+        return membros(gestorId).contains(usuarioId);
+    }
+
+    public void invalidarTodos() {
+        porGestor.invalidateAll();
+    }
+
+    public void invalidar(Long gestorId) {
+        if (gestorId == null) {
+            return;
+        }
+        porGestor.invalidate(gestorId);
+
+        // Invalida de novo após o commit, para descartar o que outra requisição
+        // possa ter carregado do banco antes da transação terminar
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    porGestor.invalidate(gestorId);
+                }
+            });
+        }
+    }
+}
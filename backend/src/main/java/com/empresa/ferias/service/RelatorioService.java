@@ -0,0 +1,120 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.config.LimitadorConcorrencia;
+import com.empresa.ferias.dto.RelatorioAusenciasDTO;
+import com.empresa.ferias.dto.SolicitacaoDTO;
+import com.empresa.ferias.event.SolicitacaoAlteradaEvent;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.empresa.ferias.repository.EquipeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Relatórios agregados no banco: cada solicitação é expandida em dias com
+ * generate_series e somada por mês/tipo/status em um único GROUP BY, sem
+ * trazer as solicitações para a aplicação. O resultado fica em cache por
+ * (equipe, ano) e é invalidado quando uma solicitação de um membro muda;
+ * o TTL limita o que uma carga concorrente com a alteração deixar em cache.
+ */
+@Service
+public class RelatorioService {
+
+    private static final String RELATORIOS = "relatorios";
+
+    private static final String AUSENCIAS_POR_MES =
+            "SELECT EXTRACT(MONTH FROM d.dia) AS mes, s.tipo_ausencia_id, s.status, " +
+            "COUNT(*) AS dias, COUNT(DISTINCT s.usuario_id) AS usuarios " +
+            "FROM solicitacoes s " +
+            "JOIN membros_equipe m ON m.usuario_id = s.usuario_id AND m.equipe_id = ? " +
+            "CROSS JOIN LATERAL generate_series(GREATEST(s.data_inicio, ?), LEAST(s.data_fim, ?), " +
+            "INTERVAL '1 day') AS d(dia) " +
+            "WHERE s.data_inicio <= ? AND s.data_fim >= ? " +
+            "GROUP BY 1, s.tipo_ausencia_id, s.status " +
+            "ORDER BY 1, s.tipo_ausencia_id, s.status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EquipeRepository equipeRepository;
+    private final LimitadorConcorrencia limitadorConcorrencia;
+    private final Cache<ChaveRelatorio, RelatorioAusenciasDTO> relatorios;
+
+    public RelatorioService(
+            JdbcTemplate jdbcTemplate,
+            EquipeRepository equipeRepository,
+            LimitadorConcorrencia limitadorConcorrencia,
+            @Value("${app.relatorios.tamanho-maximo}") long tamanhoMaximo,
+            @Value("${app.relatorios.ttl}") long ttl
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.equipeRepository = equipeRepository;
+        this.limitadorConcorrencia = limitadorConcorrencia;
+        this.relatorios = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+
+    public RelatorioAusenciasDTO ausenciasPorMes(Long equipeId, int ano, Long gestorId) {
+        if (!equipeRepository.existsByIdAndGestorId(equipeId, gestorId)) {
+            throw new RuntimeException("Equipe não encontrada ou não gerenciada por você");
+        }
+        return relatorios.get(new ChaveRelatorio(equipeId, ano), this::consultar);
+    }
+
+    public void invalidarEquipe(Long equipeId) {
+        relatorios.asMap().keySet().removeIf(chave -> chave.equipeId().equals(equipeId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarSolicitacao(SolicitacaoAlteradaEvent evento) {
+        if (relatorios.estimatedSize() == 0) {
+            return;
+        }
+        SolicitacaoDTO solicitacao = evento.getSolicitacao();
+        int anoInicio = solicitacao.getDataInicio().getYear();
+        int anoFim = solicitacao.getDataFim().getYear();
+        Set<Long> equipes = new HashSet<>(equipeRepository.findIdsByMembroId(solicitacao.getUsuarioId()));
+
+        relatorios.asMap().keySet().removeIf(chave -> equipes.contains(chave.equipeId())
+                && chave.ano() >= anoInicio && chave.ano() <= anoFim);
+    }
+
+    public void invalidarTodos() {
+        relatorios.invalidateAll();
+    }
+
+    private RelatorioAusenciasDTO consultar(ChaveRelatorio chave) {
+        Date inicio = Date.valueOf(LocalDate.of(chave.ano(), 1, 1));
+        Date fim = Date.valueOf(LocalDate.of(chave.ano(), 12, 31));
+
+        // Consultas pesadas: no máximo app.async.limites.relatorios ao mesmo tempo
+        List<RelatorioAusenciasDTO.Linha> linhas = limitadorConcorrencia.executar(RELATORIOS, () ->
+                jdbcTemplate.query(AUSENCIAS_POR_MES,
+                        (rs, i) -> new RelatorioAusenciasDTO.Linha(
+                                rs.getInt("mes"),
+                                rs.getLong("tipo_ausencia_id"),
+                                StatusSolicitacao.valueOf(rs.getString("status")),
+                                rs.getLong("dias"),
+                                rs.getLong("usuarios")),
+                        chave.equipeId(), inicio, fim, fim, inicio));
+
+        return RelatorioAusenciasDTO.builder()
+                .equipeId(chave.equipeId())
+                .ano(chave.ano())
+                .linhas(linhas)
+                .build();
+    }
+
+    private record ChaveRelatorio(Long equipeId, int ano) {
+    }
+}
@@ -1,18 +1,38 @@
 package com.empresa.ferias.service;
 
+import com.empresa.ferias.dto.FiltroSolicitacoes;
+import com.empresa.ferias.dto.PaginaDTO;
+import com.empresa.ferias.dto.ResultadoLoteDTO;
 import com.empresa.ferias.dto.SolicitacaoDTO;
 import com.empresa.ferias.dto.SolicitacaoRequest;
+import com.empresa.ferias.event.SolicitacaoAlteradaEvent;
 import com.empresa.ferias.model.*;
 import com.empresa.ferias.repository.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +44,17 @@ public class SolicitacaoService {
     private final SaldoFeriasRepository saldoFeriasRepository;
     private final EquipeRepository equipeRepository;
     private final EmailService emailService;
+    private final IndiceConflitosService indiceConflitosService;
+    private final CalendarioEquipeService calendarioEquipeService;
+    private final CalendarioDiasUteis calendarioDiasUteis;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private static final int LIMITE_MAXIMO_PAGINA = 200;
+    private static final int TAMANHO_LOTE_STREAMING = 500;
+    private static final int MAXIMO_DIAS_SEM_COBERTURA = 5;
+    private static final int MAXIMO_ANOS_ANTECEDENCIA = 2;
 
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
@@ -44,24 +75,27 @@ public class SolicitacaoService {
             throw new RuntimeException("Não é possível solicitar férias para datas passadas");
         }
 
-        // Verificar conflitos
-        List<Solicitacao> conflitos = solicitacaoRepository.findConflitos(
-                usuarioId, request.getDataInicio(), request.getDataFim());
+        validarExtensao(request.getDataInicio(), request.getDataFim());
 
-        if (!conflitos.isEmpty()) {
+        // Verificar conflitos (índice em memória, confirmado no banco quando necessário)
+        if (indiceConflitosService.possuiConflito(usuarioId, request.getDataInicio(), request.getDataFim())) {
             throw new RuntimeException("Já existe uma solicitação para este período");
         }
 
+        verificarCoberturaEquipes(usuarioId, request.getDataInicio(), request.getDataFim());
+
+        int diasUteis = calendarioDiasUteis.contar(usuario.getRegiao(), request.getDataInicio(), request.getDataFim());
+        if (diasUteis == 0) {
+            throw new RuntimeException("O período não contém dias úteis");
+        }
+
         // Verificar saldo se o tipo deduz saldo
         if (tipoAusencia.getDeduzSaldo()) {
             int ano = request.getDataInicio().getYear();
             SaldoFerias saldo = saldoFeriasRepository.findByUsuarioIdAndAnoReferencia(usuarioId, ano)
                     .orElseThrow(() -> new RuntimeException("Saldo de férias não encontrado para o ano " + ano));
 
-            long diasSolicitados = java.time.temporal.ChronoUnit.DAYS.between(
-                    request.getDataInicio(), request.getDataFim()) + 1;
-
-            if (diasSolicitados > saldo.getDiasDisponiveis()) {
+            if (diasUteis > saldo.getDiasDisponiveis()) {
                 throw new RuntimeException("Saldo insuficiente. Disponível: " + saldo.getDiasDisponiveis() + " dias");
             }
         }
@@ -71,6 +105,7 @@ public class SolicitacaoService {
                 .tipoAusencia(tipoAusencia)
                 .dataInicio(request.getDataInicio())
                 .dataFim(request.getDataFim())
+                .diasUteis(diasUteis)
                 .observacao(request.getObservacao())
                 .status(StatusSolicitacao.PENDENTE)
                 .build();
@@ -80,7 +115,39 @@ public class SolicitacaoService {
         // Notificar gestores
         notificarGestores(usuario, request.getDataInicio(), request.getDataFim());
 
-        return SolicitacaoDTO.fromEntity(solicitacao);
+        SolicitacaoDTO dto = SolicitacaoDTO.fromEntity(solicitacao);
+        eventPublisher.publishEvent(SolicitacaoAlteradaEvent.criada(dto));
+        return dto;
+    }
+
+    // Regra de cobertura mínima: consulta o contador diário em memória de cada equipe
+    // com limite configurado, sem uma query por dia
+    private void verificarCoberturaEquipes(Long usuarioId, LocalDate inicio, LocalDate fim) {
+        for (Equipe equipe : equipeRepository.findByMembroId(usuarioId)) {
+            Integer limite = equipe.getMaxAusentesPorDia();
+            if (limite == null) {
+                continue;
+            }
+
+            List<LocalDate> dias = calendarioEquipeService.diasNoLimite(
+                    equipe.getId(), inicio, fim, limite, MAXIMO_DIAS_SEM_COBERTURA);
+            if (!dias.isEmpty()) {
+                throw new RuntimeException("A equipe " + equipe.getNome() + " já atingiu o limite de "
+                        + limite + " ausente(s) por dia em: "
+                        + dias.stream().map(formatter::format).collect(Collectors.joining(", ")));
+            }
+        }
+    }
+
+    // A contagem de dias úteis e a regra de cobertura percorrem o período ano a ano:
+    // limitar a extensão evita montar (e tirar do cache) um calendário por ano
+    private void validarExtensao(LocalDate inicio, LocalDate fim) {
+        if (fim.isAfter(inicio.plusYears(1))) {
+            throw new RuntimeException("O período não pode ser maior que um ano");
+        }
+        if (fim.isAfter(LocalDate.now().plusYears(MAXIMO_ANOS_ANTECEDENCIA))) {
+            throw new RuntimeException("A data fim deve estar nos próximos " + MAXIMO_ANOS_ANTECEDENCIA + " anos");
+        }
     }
 
     private void notificarGestores(Usuario funcionario, LocalDate inicio, LocalDate fim) {
@@ -99,30 +166,72 @@ public class SolicitacaoService {
         }
     }
 
+    // Mesma contagem usada ao criar a solicitação, para a prévia do formulário
+    public int contarDiasUteis(Long usuarioId, LocalDate inicio, LocalDate fim) {
+        validarExtensao(inicio, fim);
+        String regiao = usuarioRepository.findRegiaoById(usuarioId).orElse(null);
+        return calendarioDiasUteis.contar(regiao, inicio, fim);
+    }
+
     public List<SolicitacaoDTO> listarMinhasSolicitacoes(Long usuarioId) {
-        return solicitacaoRepository.findByUsuarioId(usuarioId).stream()
-                .map(SolicitacaoDTO::fromEntity)
-                .collect(Collectors.toList());
+        return solicitacaoRepository.findDtosByUsuarioId(usuarioId);
     }
 
     public List<SolicitacaoDTO> listarMinhasSolicitacoesPorAno(Long usuarioId, int ano) {
-        return solicitacaoRepository.findByUsuarioIdAndAno(usuarioId, ano).stream()
-                .map(SolicitacaoDTO::fromEntity)
-                .collect(Collectors.toList());
+        return solicitacaoRepository.findDtosByUsuarioIdAndAno(usuarioId, ano);
     }
 
-    // Lista TODAS as solicitações pendentes (para gestores)
-    public List<SolicitacaoDTO> listarTodasPendentes() {
-        return solicitacaoRepository.findByStatus(StatusSolicitacao.PENDENTE).stream()
-                .map(SolicitacaoDTO::fromEntity)
-                .collect(Collectors.toList());
+    // Pendentes dos membros das equipes do gestor
+    public List<SolicitacaoDTO> listarPendentesDoGestor(Long gestorId) {
+        return solicitacaoRepository.findDtosByGestorIdAndStatus(gestorId, StatusSolicitacao.PENDENTE);
     }
 
-    // Lista TODAS as solicitações (para gestores)
-    public List<SolicitacaoDTO> listarTodasSolicitacoes() {
-        return solicitacaoRepository.findAll().stream()
+    // Todas as solicitações dos membros das equipes do gestor
+    public List<SolicitacaoDTO> listarSolicitacoesDoGestor(Long gestorId) {
+        return solicitacaoRepository.findDtosByGestorId(gestorId);
+    }
+
+    public PaginaDTO<SolicitacaoDTO> listarPagina(Long cursor, int limite, FiltroSolicitacoes filtro) {
+        int tamanho = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PAGINA));
+
+        // Busca um item a mais para saber se existe próxima página
+        List<Solicitacao> resultado = solicitacaoRepository.findPagina(
+                cursor, filtro.getStatus(), filtro.getInicio(), filtro.getFim(), filtro.getEquipeId(),
+                filtro.getGestorId(), PageRequest.of(0, tamanho + 1));
+
+        boolean temMais = resultado.size() > tamanho;
+        List<SolicitacaoDTO> itens = resultado.stream()
+                .limit(tamanho)
                 .map(SolicitacaoDTO::fromEntity)
                 .collect(Collectors.toList());
+
+        return PaginaDTO.<SolicitacaoDTO>builder()
+                .itens(itens)
+                .proximoCursor(temMais ? itens.get(itens.size() - 1).getId() : null)
+                .temMais(temMais)
+                .build();
+    }
+
+    // Escreve um array JSON direto no OutputStream, linha a linha, sem montar a lista em memória
+    @Transactional(readOnly = true)
+    public void escreverSolicitacoesJson(FiltroSolicitacoes filtro, OutputStream out) throws IOException {
+        try (Stream<Solicitacao> stream = solicitacaoRepository.streamFiltrado(
+                     filtro.getStatus(), filtro.getInicio(), filtro.getFim(), filtro.getEquipeId(), filtro.getGestorId());
+             JsonGenerator gerador = objectMapper.getFactory().createGenerator(out)) {
+
+            gerador.writeStartArray();
+            int escritos = 0;
+            Iterator<Solicitacao> it = stream.iterator();
+            while (it.hasNext()) {
+                gerador.writeObject(SolicitacaoDTO.fromEntity(it.next()));
+                if (++escritos % TAMANHO_LOTE_STREAMING == 0) {
+                    // Libera as entidades já serializadas do contexto de persistência
+                    entityManager.clear();
+                    gerador.flush();
+                }
+            }
+            gerador.writeEndArray();
+        }
     }
 
     @Transactional
@@ -148,12 +257,7 @@ public class SolicitacaoService {
         // Atualizar saldo se aplicável
         if (solicitacao.getTipoAusencia().getDeduzSaldo()) {
             int ano = solicitacao.getDataInicio().getYear();
-            SaldoFerias saldo = saldoFeriasRepository.findByUsuarioIdAndAnoReferencia(
-                    solicitacao.getUsuario().getId(), ano)
-                    .orElseThrow(() -> new RuntimeException("Saldo não encontrado"));
-
-            saldo.setDiasUsados(saldo.getDiasUsados() + (int) solicitacao.getDiasTotal());
-            saldoFeriasRepository.save(saldo);
+            debitarSaldo(solicitacao.getUsuario().getId(), ano, (int) solicitacao.getDiasTotal());
         }
 
         solicitacao = solicitacaoRepository.save(solicitacao);
@@ -168,7 +272,7 @@ public class SolicitacaoService {
                 null
         );
 
-        return SolicitacaoDTO.fromEntity(solicitacao);
+        return publicarAlteracao(solicitacao, StatusSolicitacao.PENDENTE);
     }
 
     @Transactional
@@ -203,7 +307,7 @@ public class SolicitacaoService {
                 motivo
         );
 
-        return SolicitacaoDTO.fromEntity(solicitacao);
+        return publicarAlteracao(solicitacao, StatusSolicitacao.PENDENTE);
     }
 
     @Transactional
@@ -215,20 +319,150 @@ public class SolicitacaoService {
             throw new RuntimeException("Você só pode cancelar suas próprias solicitações");
         }
 
-        if (solicitacao.getStatus() == StatusSolicitacao.APROVADO) {
+        StatusSolicitacao statusAnterior = solicitacao.getStatus();
+        if (statusAnterior == StatusSolicitacao.APROVADO) {
             // Devolver saldo se foi aprovado e deduziu saldo
             if (solicitacao.getTipoAusencia().getDeduzSaldo()) {
                 int ano = solicitacao.getDataInicio().getYear();
-                SaldoFerias saldo = saldoFeriasRepository.findByUsuarioIdAndAnoReferencia(usuarioId, ano)
-                        .orElseThrow(() -> new RuntimeException("Saldo não encontrado"));
-
-                saldo.setDiasUsados(Math.max(0, saldo.getDiasUsados() - (int) solicitacao.getDiasTotal()));
-                saldoFeriasRepository.save(saldo);
+                if (saldoFeriasRepository.devolverDias(usuarioId, ano, (int) solicitacao.getDiasTotal()) == 0) {
+                    throw new RuntimeException("Saldo não encontrado");
+                }
             }
         }
 
         solicitacao.setStatus(StatusSolicitacao.CANCELADO);
-        return SolicitacaoDTO.fromEntity(solicitacaoRepository.save(solicitacao));
+        return publicarAlteracao(solicitacaoRepository.save(solicitacao), statusAnterior);
+    }
+
+    @Transactional
+    public ResultadoLoteDTO aprovarLote(List<Long> ids, Long aprovadorId) {
+        return processarLote(ids, aprovadorId, StatusSolicitacao.APROVADO, null);
+    }
+
+    @Transactional
+    public ResultadoLoteDTO rejeitarLote(List<Long> ids, Long aprovadorId, String motivo) {
+        return processarLote(ids, aprovadorId, StatusSolicitacao.REJEITADO, motivo);
+    }
+
+    // Carrega todas as solicitações em uma query, agrupa as deduções de saldo por
+    // (usuário, ano) em um UPDATE cada e grava status/emails em lote (JDBC batching).
+    // Itens inválidos são reportados individualmente sem abortar o restante.
+    private ResultadoLoteDTO processarLote(List<Long> ids, Long aprovadorId,
+                                           StatusSolicitacao novoStatus, String motivo) {
+        Usuario aprovador = usuarioRepository.findById(aprovadorId)
+                .orElseThrow(() -> new RuntimeException("Aprovador não encontrado"));
+        verificarPermissaoAprovacao(aprovador, null);
+
+        boolean aprovacao = novoStatus == StatusSolicitacao.APROVADO;
+        List<Long> idsUnicos = ids.stream().distinct().collect(Collectors.toList());
+        Map<Long, Solicitacao> porId = solicitacaoRepository.findAllByIdComAssociacoes(idsUnicos).stream()
+                .collect(Collectors.toMap(Solicitacao::getId, s -> s));
+
+        Map<Long, ResultadoLoteDTO.Item> resultados = new LinkedHashMap<>();
+        List<Solicitacao> validas = new ArrayList<>();
+        for (Long id : idsUnicos) {
+            Solicitacao solicitacao = porId.get(id);
+            if (solicitacao == null) {
+                resultados.put(id, ResultadoLoteDTO.Item.falha(id, "Solicitação não encontrada"));
+            } else if (solicitacao.getStatus() != StatusSolicitacao.PENDENTE) {
+                resultados.put(id, ResultadoLoteDTO.Item.falha(id, aprovacao
+                        ? "Apenas solicitações pendentes podem ser aprovadas"
+                        : "Apenas solicitações pendentes podem ser rejeitadas"));
+            } else {
+                resultados.put(id, null);
+                validas.add(solicitacao);
+            }
+        }
+
+        if (aprovacao) {
+            Set<Long> semSaldo = deduzirSaldosAgrupados(validas, resultados);
+            validas.removeIf(s -> semSaldo.contains(s.getId()));
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<EmailOutbox> notificacoes = new ArrayList<>();
+        List<SolicitacaoAlteradaEvent> eventos = new ArrayList<>();
+        for (Solicitacao solicitacao : validas) {
+            solicitacao.setStatus(novoStatus);
+            solicitacao.setAprovador(aprovador);
+            solicitacao.setDataAprovacao(agora);
+            if (!aprovacao) {
+                solicitacao.setMotivoRejeicao(motivo);
+            }
+
+            String periodo = solicitacao.getDataInicio().format(formatter) + " a " + solicitacao.getDataFim().format(formatter);
+            notificacoes.add(emailService.notificacaoAprovacao(
+                    solicitacao.getUsuario().getEmail(),
+                    solicitacao.getUsuario().getNomeCompleto(),
+                    periodo,
+                    aprovacao,
+                    motivo
+            ));
+
+            SolicitacaoDTO dto = SolicitacaoDTO.fromEntity(solicitacao);
+            resultados.put(solicitacao.getId(), ResultadoLoteDTO.Item.sucesso(dto));
+            eventos.add(new SolicitacaoAlteradaEvent(dto, StatusSolicitacao.PENDENTE));
+        }
+
+        solicitacaoRepository.saveAll(validas);
+        emailService.enviarNotificacoes(notificacoes);
+        eventos.forEach(eventPublisher::publishEvent);
+
+        return ResultadoLoteDTO.builder()
+                .processadas(validas.size())
+                .falhas(resultados.size() - validas.size())
+                .itens(new ArrayList<>(resultados.values()))
+                .build();
+    }
+
+    // Retorna os ids das solicitações que não puderam ter o saldo deduzido.
+    // Os UPDATEs seguem a ordem (usuário, ano): dois lotes que se sobrepõem travam
+    // as linhas de saldo_ferias na mesma ordem e não entram em deadlock
+    private Set<Long> deduzirSaldosAgrupados(List<Solicitacao> solicitacoes,
+                                             Map<Long, ResultadoLoteDTO.Item> resultados) {
+        Map<ChaveSaldo, List<Solicitacao>> porUsuarioEAno = solicitacoes.stream()
+                .filter(s -> s.getTipoAusencia().getDeduzSaldo())
+                .collect(Collectors.groupingBy(
+                        s -> new ChaveSaldo(s.getUsuario().getId(), s.getDataInicio().getYear()),
+                        () -> new TreeMap<>(Comparator.comparing(ChaveSaldo::usuarioId)
+                                .thenComparingInt(ChaveSaldo::ano)),
+                        Collectors.toList()));
+
+        Set<Long> semSaldo = new HashSet<>();
+        porUsuarioEAno.forEach((chave, grupo) -> {
+            int dias = grupo.stream().mapToInt(s -> (int) s.getDiasTotal()).sum();
+
+            if (saldoFeriasRepository.debitarDias(chave.usuarioId(), chave.ano(), dias) == 0) {
+                String mensagem = motivoFalhaDebito(chave.usuarioId(), chave.ano());
+                grupo.forEach(s -> {
+                    resultados.put(s.getId(), ResultadoLoteDTO.Item.falha(s.getId(), mensagem));
+                    semSaldo.add(s.getId());
+                });
+            }
+        });
+        return semSaldo;
+    }
+
+    private record ChaveSaldo(Long usuarioId, int ano) {
+    }
+
+    private void debitarSaldo(Long usuarioId, int ano, int dias) {
+        if (saldoFeriasRepository.debitarDias(usuarioId, ano, dias) == 0) {
+            throw new RuntimeException(motivoFalhaDebito(usuarioId, ano));
+        }
+    }
+
+    // O UPDATE condicional não diz por que nenhuma linha foi alterada
+    private String motivoFalhaDebito(Long usuarioId, int ano) {
+        return saldoFeriasRepository.findByUsuarioIdAndAnoReferencia(usuarioId, ano)
+                .map(saldo -> "Saldo insuficiente. Disponível: " + saldo.getDiasDisponiveis() + " dias")
+                .orElse("Saldo não encontrado para o ano " + ano);
+    }
+
+    private SolicitacaoDTO publicarAlteracao(Solicitacao solicitacao, StatusSolicitacao statusAnterior) {
+        SolicitacaoDTO dto = SolicitacaoDTO.fromEntity(solicitacao);
+        eventPublisher.publishEvent(new SolicitacaoAlteradaEvent(dto, statusAnterior));
+        return dto;
     }
 
     private void verificarPermissaoAprovacao(Usuario aprovador, Usuario funcionario) {
@@ -13,6 +13,7 @@ import java.util.List;
 public class TipoAusenciaService {
 
     private final TipoAusenciaRepository tipoAusenciaRepository;
+    private final VersoesRecursos versoesRecursos;
 
     public List<TipoAusencia> listarTodos() {
         return tipoAusenciaRepository.findAll();
@@ -41,6 +42,7 @@ public class TipoAusenciaService {
                 .isAtivo(true)
                 .build();
 
+        versoesRecursos.alterouTipos();
         return tipoAusenciaRepository.save(tipo);
     }
 
@@ -68,6 +70,7 @@ public class TipoAusenciaService {
             tipo.setDescricao(descricao);
         }
 
+        versoesRecursos.alterouTipos();
         return tipoAusenciaRepository.save(tipo);
     }
 
@@ -76,6 +79,7 @@ public class TipoAusenciaService {
         TipoAusencia tipo = tipoAusenciaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tipo de ausência não encontrado"));
         tipo.setIsAtivo(!tipo.getIsAtivo());
+        versoesRecursos.alterouTipos();
         return tipoAusenciaRepository.save(tipo);
     }
 }
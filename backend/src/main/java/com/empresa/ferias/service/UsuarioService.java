@@ -1,13 +1,16 @@
 package com.empresa.ferias.service;
 
+import com.empresa.ferias.config.ViradaSaldoProperties;
 import com.empresa.ferias.dto.SaldoFeriasDTO;
 import com.empresa.ferias.dto.UpdateUsuarioRequest;
 import com.empresa.ferias.dto.UsuarioDTO;
 import com.empresa.ferias.model.Role;
 import com.empresa.ferias.model.SaldoFerias;
 import com.empresa.ferias.model.Usuario;
+import com.empresa.ferias.repository.EquipeRepository;
 import com.empresa.ferias.repository.SaldoFeriasRepository;
 import com.empresa.ferias.repository.UsuarioRepository;
+import com.empresa.ferias.security.VersoesToken;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +25,10 @@ public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final SaldoFeriasRepository saldoFeriasRepository;
+    private final EquipeRepository equipeRepository;
+    private final VersoesToken versoesToken;
+    private final VersoesRecursos versoesRecursos;
+    private final ViradaSaldoProperties viradaSaldoProperties;
 
     public UsuarioDTO buscarPorId(Long id) {
         Usuario usuario = usuarioRepository.findById(id)
@@ -51,6 +58,7 @@ public class UsuarioService {
     public UsuarioDTO atualizar(Long id, UpdateUsuarioRequest request) {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        String nomeAnterior = usuario.getNomeCompleto();
 
         if (request.getNomeCompleto() != null && !request.getNomeCompleto().isBlank()) {
             usuario.setNomeCompleto(request.getNomeCompleto());
@@ -70,8 +78,16 @@ public class UsuarioService {
         if (request.getDataAdmissao() != null) {
             usuario.setDataAdmissao(request.getDataAdmissao());
         }
+        if (request.getRegiao() != null) {
+            usuario.setRegiao(request.getRegiao().isBlank() ? null : request.getRegiao().trim().toUpperCase());
+        }
 
         usuarioRepository.save(usuario);
+        versoesRecursos.alterouUsuario(id);
+        if (!usuario.getNomeCompleto().equals(nomeAnterior)) {
+            // O nome do gestor aparece nas equipes e aprovações dos membros
+            versoesRecursos.alterouUsuarios(equipeRepository.findMembroIdsByGestorId(id));
+        }
         return UsuarioDTO.fromEntity(usuario);
     }
 
@@ -80,7 +96,10 @@ public class UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
         usuario.setRole(novaRole);
+        // A role vai no JWT: tokens emitidos com a anterior deixam de valer
+        usuario.setVersaoToken(usuario.getVersaoToken() + 1);
         usuarioRepository.save(usuario);
+        versoesToken.invalidar(id);
         return UsuarioDTO.fromEntity(usuario);
     }
 
@@ -89,22 +108,23 @@ public class UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
         usuario.setIsAtivo(!usuario.getIsAtivo());
+        usuario.setVersaoToken(usuario.getVersaoToken() + 1);
         usuarioRepository.save(usuario);
+        versoesToken.invalidar(id);
         return UsuarioDTO.fromEntity(usuario);
     }
 
     // ---- Saldos ----
 
+    // Consultas não criam saldos: quem cria é o cadastro, a virada anual
+    // (ViradaSaldoService) ou um ajuste do RH
     public SaldoFeriasDTO buscarSaldoAtual(Long usuarioId) {
-        int anoAtual = Year.now().getValue();
-        SaldoFerias saldo = saldoFeriasRepository.findByUsuarioIdAndAnoReferencia(usuarioId, anoAtual)
-                .orElseGet(() -> criarSaldoParaAno(usuarioId, anoAtual));
-        return SaldoFeriasDTO.fromEntity(saldo);
+        return buscarSaldoPorAno(usuarioId, Year.now().getValue());
     }
 
     public SaldoFeriasDTO buscarSaldoPorAno(Long usuarioId, int ano) {
         SaldoFerias saldo = saldoFeriasRepository.findByUsuarioIdAndAnoReferencia(usuarioId, ano)
-                .orElseGet(() -> criarSaldoParaAno(usuarioId, ano));
+                .orElseThrow(() -> new RuntimeException("Saldo de férias não encontrado para o ano " + ano));
         return SaldoFeriasDTO.fromEntity(saldo);
     }
 
@@ -131,6 +151,7 @@ public class UsuarioService {
 
         saldo.setDiasTotais(diasTotais);
         saldoFeriasRepository.save(saldo);
+        versoesRecursos.alterouUsuario(usuarioId);
         return SaldoFeriasDTO.fromEntity(saldo);
     }
 
@@ -141,10 +162,12 @@ public class UsuarioService {
         SaldoFerias novoSaldo = SaldoFerias.builder()
                 .usuario(usuario)
                 .anoReferencia(ano)
-                .diasTotais(30)
+                .diasTotais(viradaSaldoProperties.getDiasPadrao())
                 .diasUsados(0)
                 .build();
 
-        return saldoFeriasRepository.save(novoSaldo);
+        SaldoFerias salvo = saldoFeriasRepository.save(novoSaldo);
+        versoesRecursos.alterouUsuario(usuarioId);
+        return salvo;
     }
 }
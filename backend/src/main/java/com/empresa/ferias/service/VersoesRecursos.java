@@ -0,0 +1,152 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.event.SolicitacaoAlteradaEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contadores de alteração usados como ETag nas listagens do próprio usuário
+ * e dos tipos de ausência, guardados na tabela versoes_recursos.
+ * <p>
+ * Os serviços avisam cada escrita e o contador é incrementado na mesma
+ * transação: a versão nova só fica visível com o commit dos dados, vale para
+ * todas as instâncias da API e sobrevive a restarts. Montar o ETag custa uma
+ * leitura por chave primária, bem menos que a listagem que ele evita.
+ */
+@Component
+public class VersoesRecursos {
+
+    private static final String TODOS = "todos";
+    private static final String TIPOS = "tipos";
+
+    private static final String LER =
+            "SELECT chave, versao FROM versoes_recursos WHERE chave IN (?, ?, ?)";
+    private static final String INCREMENTAR =
+            "UPDATE versoes_recursos SET versao = versao + 1 WHERE chave = ?";
+    // Sem alvo no ON CONFLICT: a chave primária é a única restrição da tabela, e
+    // o H2 dos benchmarks (modo PostgreSQL) só aceita essa forma
+    private static final String CRIAR =
+            "INSERT INTO versoes_recursos (chave, versao) VALUES (?, 0) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VersoesRecursos(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Dados do próprio usuário (solicitações, saldos, equipes), que também exibem tipos de ausência. */
+    public String etagUsuario(Long usuarioId) {
+        String chave = chaveUsuario(usuarioId);
+        Map<String, Long> versoes = ler(chave, TODOS, TIPOS);
+        return "\"u" + usuarioId + "-" + versoes.getOrDefault(chave, 0L) + "-"
+                + versoes.getOrDefault(TODOS, 0L) + "-" + versoes.getOrDefault(TIPOS, 0L) + "\"";
+    }
+
+    public String etagTipos() {
+        return "\"t-" + ler(TIPOS, TIPOS, TIPOS).getOrDefault(TIPOS, 0L) + "\"";
+    }
+
+    public void alterouUsuario(Long usuarioId) {
+        incrementar(List.of(chaveUsuario(usuarioId)));
+    }
+
+    public void alterouUsuarios(Collection<Long> usuarioIds) {
+        // Ordem fixa: duas transações nunca travam as mesmas linhas em ordens diferentes
+        incrementar(usuarioIds.stream().distinct().sorted().map(VersoesRecursos::chaveUsuario).toList());
+    }
+
+    // Para cargas em massa: o contador global entra no ETag de todos os usuários
+    public void alterouTodos() {
+        incrementar(List.of(TODOS));
+    }
+
+    public void alterouTipos() {
+        incrementar(List.of(TIPOS));
+    }
+
+    // Publicado dentro da transação da solicitação: os usuários alterados são reunidos
+    // e incrementados uma vez antes do commit, ainda dentro dela (um lote de
+    // aprovações vira um único alterouUsuarios)
+    @EventListener
+    public void aoAlterarSolicitacao(SolicitacaoAlteradaEvent evento) {
+        Long usuarioId = evento.getSolicitacao().getUsuarioId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            alterouUsuario(usuarioId);
+            return;
+        }
+
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacao instanceof UsuariosAlterados alterados) {
+                alterados.usuarioIds.add(usuarioId);
+                return;
+            }
+        }
+        UsuariosAlterados alterados = new UsuariosAlterados();
+        alterados.usuarioIds.add(usuarioId);
+        TransactionSynchronizationManager.registerSynchronization(alterados);
+    }
+
+    private Map<String, Long> ler(String... chaves) {
+        Map<String, Long> versoes = new HashMap<>();
+        jdbcTemplate.query(LER, rs -> {
+            versoes.put(rs.getString("chave"), rs.getLong("versao"));
+        }, (Object[]) chaves);
+        return versoes;
+    }
+
+    // UPDATE primeiro; as chaves ainda sem linha são criadas com zero (ou já foram
+    // por outra transação) e incrementadas de novo. O insert não confere contagens:
+    // com reWriteBatchedInserts o driver não as informa
+    private void incrementar(List<String> chaves) {
+        if (chaves.isEmpty()) {
+            return;
+        }
+        List<String> semLinha = semEfeito(INCREMENTAR, chaves);
+        if (semLinha.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(CRIAR, semLinha, semLinha.size(), (ps, chave) -> ps.setString(1, chave));
+        semEfeito(INCREMENTAR, semLinha);
+    }
+
+    private List<String> semEfeito(String sql, List<String> chaves) {
+        int[][] resultados = jdbcTemplate.batchUpdate(sql, chaves, chaves.size(),
+                (ps, chave) -> ps.setString(1, chave));
+        List<String> semEfeito = new ArrayList<>();
+        int i = 0;
+        for (int[] lote : resultados) {
+            for (int linhas : lote) {
+                if (linhas == 0) {
+                    semEfeito.add(chaves.get(i));
+                }
+                i++;
+            }
+        }
+        return semEfeito;
+    }
+
+    private static String chaveUsuario(Long usuarioId) {
+        return "u:" + usuarioId;
+    }
+
+    private final class UsuariosAlterados implements TransactionSynchronization {
+
+        private final Set<Long> usuarioIds = new HashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            alterouUsuarios(usuarioIds);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.config.ViradaSaldoProperties;
+import com.empresa.ferias.model.StatusVirada;
+import com.empresa.ferias.model.ViradaSaldo;
+import com.empresa.ferias.repository.ViradaSaldoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Virada anual de saldos, em lotes de app.saldo.virada.tamanho-lote usuários
+ * por transação (keyset por id e comandos em lote via JDBC), em duas etapas:
+ * <ol>
+ *   <li>em dezembro ({@code cron}) cria os saldos do ano seguinte com os dias
+ *   padrão, sem tocar no ano corrente, que continua aprovando normalmente;</li>
+ *   <li>depois que o ano de origem termina ({@code cron-transferencia}) passa as
+ *   sobras para o novo ano conforme a política configurada e as retira do ano
+ *   de origem, para não serem usadas duas vezes.</li>
+ * </ol>
+ * Dias de solicitações ainda pendentes no ano de origem ficam reservados lá e
+ * não entram na sobra. O progresso de cada etapa fica em {@link ViradaSaldo}.
+ */
+@Service
+@EnableConfigurationProperties(ViradaSaldoProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class ViradaSaldoService {
+
+    private static final String INSERIR_SALDO =
+            "INSERT INTO saldo_ferias (usuario_id, ano_referencia, dias_totais, dias_usados, dias_transferidos, versao) " +
+            "VALUES (?, ?, ?, 0, 0, 0) ON CONFLICT (usuario_id, ano_referencia) DO NOTHING";
+
+    // Saldos criados sob demanda depois da primeira etapa também recebem a sobra;
+    // dias_transferidos = 0 impede aplicar a mesma transferência duas vezes
+    private static final String ADICIONAR_TRANSFERIDOS =
+            "UPDATE saldo_ferias SET dias_totais = dias_totais + ?, dias_transferidos = ?, versao = versao + 1 " +
+            "WHERE usuario_id = ? AND ano_referencia = ? AND dias_transferidos = 0";
+
+    // Só retira do ano de origem se o saldo de destino recebeu mesmo estes dias
+    private static final String RETIRAR_TRANSFERIDOS =
+            "UPDATE saldo_ferias o SET dias_totais = o.dias_totais - ?, versao = o.versao + 1 " +
+            "WHERE o.usuario_id = ? AND o.ano_referencia = ? AND EXISTS (" +
+            "SELECT 1 FROM saldo_ferias d WHERE d.usuario_id = o.usuario_id " +
+            "AND d.ano_referencia = ? AND d.dias_transferidos = ?)";
+
+    private static final String DIAS_PENDENTES =
+            "SELECT s.usuario_id, SUM(COALESCE(s.dias_uteis, s.data_fim - s.data_inicio + 1)) AS dias " +
+            "FROM solicitacoes s JOIN tipos_ausencia t ON t.id = s.tipo_ausencia_id " +
+            "WHERE t.deduz_saldo = true AND s.status = 'PENDENTE' " +
+            "AND s.data_inicio BETWEEN ? AND ? AND s.usuario_id BETWEEN ? AND ? " +
+            "GROUP BY s.usuario_id";
+
+    private final ViradaSaldoRepository viradaSaldoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final VersoesRecursos versoesRecursos;
+    private final ViradaSaldoProperties properties;
+
+    @Scheduled(cron = "${app.saldo.virada.cron}")
+    public void executarAgendada() {
+        executar(Year.now().getValue() + 1);
+    }
+
+    @Scheduled(cron = "${app.saldo.virada.cron-transferencia}")
+    public void transferirAgendada() {
+        transferir(Year.now().getValue());
+    }
+
+    // Retoma em segundo plano etapas interrompidas por queda da aplicação, e a
+    // transferência que não rodou porque a aplicação estava parada na virada do ano
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarInterrompidas() {
+        int anoAtual = Year.now().getValue();
+        for (ViradaSaldo virada : viradaSaldoRepository.findByStatusNot(StatusVirada.CONCLUIDA)) {
+            int anoDestino = virada.getAnoDestino();
+            switch (virada.getStatus()) {
+                case EM_ANDAMENTO -> {
+                    log.info("Retomando criação dos saldos de {} a partir do usuário {}",
+                            anoDestino, virada.getUltimoUsuarioId());
+                    applicationTaskExecutor.execute(() -> executar(anoDestino));
+                }
+                case SALDOS_CRIADOS, TRANSFERINDO -> {
+                    if (anoDestino <= anoAtual) {
+                        log.info("Retomando transferência de sobras para {}", anoDestino);
+                        applicationTaskExecutor.execute(() -> transferir(anoDestino));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    /** Primeira etapa: cria (ou retoma a criação dos) saldos de anoDestino. */
+    public ViradaSaldo executar(int anoDestino) {
+        jdbcTemplate.update(
+                "INSERT INTO viradas_saldo (ano_destino, status, ultimo_usuario_id, processados, iniciada_em) " +
+                "VALUES (?, ?, 0, 0, ?) ON CONFLICT (ano_destino) DO NOTHING",
+                anoDestino, StatusVirada.EM_ANDAMENTO.name(), LocalDateTime.now());
+        return processar(anoDestino, StatusVirada.EM_ANDAMENTO);
+    }
+
+    /**
+     * Segunda etapa: passa as sobras de anoDestino - 1 para anoDestino. Também
+     * cria os saldos que faltarem, então funciona mesmo sem a primeira etapa.
+     */
+    public ViradaSaldo transferir(int anoDestino) {
+        if (anoDestino > Year.now().getValue()) {
+            throw new RuntimeException("O ano " + (anoDestino - 1) + " ainda não terminou");
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        jdbcTemplate.update(
+                "INSERT INTO viradas_saldo (ano_destino, status, ultimo_usuario_id, processados, iniciada_em) " +
+                "VALUES (?, ?, 0, 0, ?) ON CONFLICT (ano_destino) DO NOTHING",
+                anoDestino, StatusVirada.TRANSFERINDO.name(), agora);
+        // A criação interrompida para no próximo lote, ao ver a etapa trocada
+        jdbcTemplate.update(
+                "UPDATE viradas_saldo SET status = ?, ultimo_usuario_id = 0, processados = 0, atualizada_em = ? " +
+                "WHERE ano_destino = ? AND status IN (?, ?)",
+                StatusVirada.TRANSFERINDO.name(), agora, anoDestino,
+                StatusVirada.EM_ANDAMENTO.name(), StatusVirada.SALDOS_CRIADOS.name());
+        return processar(anoDestino, StatusVirada.TRANSFERINDO);
+    }
+
+    private ViradaSaldo processar(int anoDestino, StatusVirada etapa) {
+        long inicio = System.nanoTime();
+        while (Boolean.TRUE.equals(transactionTemplate.execute(status -> processarLote(anoDestino, etapa)))) {
+            // cada iteração é um lote em sua própria transação
+        }
+
+        ViradaSaldo virada = viradaSaldoRepository.findByAnoDestino(anoDestino)
+                .orElseThrow(() -> new RuntimeException("Virada de saldos não encontrada"));
+        log.info("Virada de saldos para {} ({}): {} usuários em {} ms", anoDestino, etapa, virada.getProcessados(),
+                (System.nanoTime() - inicio) / 1_000_000);
+        return virada;
+    }
+
+    /** Processa um lote da etapa; retorna true se ainda houver usuários. */
+    private boolean processarLote(int anoDestino, StatusVirada etapa) {
+        ViradaSaldo virada = viradaSaldoRepository.bloquearPorAno(anoDestino)
+                .orElseThrow(() -> new RuntimeException("Virada de saldos não encontrada"));
+        if (virada.getStatus() != etapa) {
+            return false;
+        }
+
+        int tamanhoLote = properties.getTamanhoLote();
+        List<Long> usuarios = jdbcTemplate.queryForList(
+                "SELECT id FROM usuarios WHERE is_ativo = true AND id > ? ORDER BY id LIMIT ?",
+                Long.class, virada.getUltimoUsuarioId(), tamanhoLote);
+
+        if (!usuarios.isEmpty()) {
+            criarSaldos(usuarios, anoDestino);
+            if (etapa == StatusVirada.TRANSFERINDO) {
+                transferirSobras(usuarios, anoDestino);
+            }
+            virada.setUltimoUsuarioId(usuarios.get(usuarios.size() - 1));
+            virada.setProcessados(virada.getProcessados() + usuarios.size());
+            versoesRecursos.alterouUsuarios(usuarios);
+        }
+
+        boolean haMais = usuarios.size() == tamanhoLote;
+        LocalDateTime agora = LocalDateTime.now();
+        virada.setAtualizadaEm(agora);
+        if (!haMais) {
+            if (etapa == StatusVirada.EM_ANDAMENTO) {
+                virada.setStatus(StatusVirada.SALDOS_CRIADOS);
+            } else {
+                virada.setStatus(StatusVirada.CONCLUIDA);
+                virada.setConcluidaEm(agora);
+            }
+        }
+        viradaSaldoRepository.save(virada);
+        return haMais;
+    }
+
+    private void criarSaldos(List<Long> usuarios, int anoDestino) {
+        List<Object[]> inserts = new ArrayList<>(usuarios.size());
+        for (Long usuarioId : usuarios) {
+            inserts.add(new Object[]{usuarioId, anoDestino, properties.getDiasPadrao()});
+        }
+        jdbcTemplate.batchUpdate(INSERIR_SALDO, inserts);
+    }
+
+    private void transferirSobras(List<Long> usuarios, int anoDestino) {
+        if (properties.getPoliticaSobra() == ViradaSaldoProperties.PoliticaSobra.NENHUMA) {
+            return;
+        }
+        int anoOrigem = anoDestino - 1;
+        Long primeiro = usuarios.get(0);
+        Long ultimo = usuarios.get(usuarios.size() - 1);
+
+        // Trava os saldos de origem do lote: aprovações tardias esperam a transferência
+        Map<Long, Integer> sobras = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT usuario_id, dias_totais, dias_usados FROM saldo_ferias " +
+                "WHERE ano_referencia = ? AND usuario_id BETWEEN ? AND ? FOR UPDATE",
+                rs -> {
+                    sobras.put(rs.getLong("usuario_id"), rs.getInt("dias_totais") - rs.getInt("dias_usados"));
+                },
+                anoOrigem, primeiro, ultimo);
+
+        jdbcTemplate.query(DIAS_PENDENTES, rs -> {
+            int pendentes = rs.getInt("dias");
+            sobras.computeIfPresent(rs.getLong("usuario_id"), (id, sobra) -> sobra - pendentes);
+        }, LocalDate.of(anoOrigem, 1, 1), LocalDate.of(anoOrigem, 12, 31), primeiro, ultimo);
+
+        List<Object[]> adicoes = new ArrayList<>();
+        List<Object[]> retiradas = new ArrayList<>();
+        for (Long usuarioId : usuarios) {
+            int transferidos = diasTransferidos(Math.max(0, sobras.getOrDefault(usuarioId, 0)));
+            if (transferidos > 0) {
+                adicoes.add(new Object[]{transferidos, transferidos, usuarioId, anoDestino});
+                retiradas.add(new Object[]{transferidos, usuarioId, anoOrigem, anoDestino, transferidos});
+            }
+        }
+
+        if (!adicoes.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADICIONAR_TRANSFERIDOS, adicoes);
+            jdbcTemplate.batchUpdate(RETIRAR_TRANSFERIDOS, retiradas);
+        }
+    }
+
+    private int diasTransferidos(int sobra) {
+        return switch (properties.getPoliticaSobra()) {
+            case NENHUMA -> 0;
+            case INTEGRAL -> sobra;
+            case LIMITADA -> Math.min(sobra, properties.getLimiteSobra());
+        };
+    }
+}
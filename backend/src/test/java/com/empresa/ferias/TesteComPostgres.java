@@ -0,0 +1,20 @@
+package com.empresa.ferias;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base dos testes que usam banco: um único Postgres por execução, compartilhado
+ * por todos os contextos Spring em cache (por isso iniciado aqui, e não por classe).
+ */
+@ActiveProfiles("test")
+public abstract class TesteComPostgres {
+
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+}
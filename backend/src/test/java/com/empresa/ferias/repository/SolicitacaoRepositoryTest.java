@@ -0,0 +1,127 @@
+package com.empresa.ferias.repository;
+
+import com.empresa.ferias.TesteComPostgres;
+import com.empresa.ferias.dto.SolicitacaoDTO;
+import com.empresa.ferias.model.Equipe;
+import com.empresa.ferias.model.Role;
+import com.empresa.ferias.model.Solicitacao;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.empresa.ferias.model.TipoAusencia;
+import com.empresa.ferias.model.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * As listagens usam a projeção PROJECAO_DTO: usuário, tipo e aprovador vêm na
+ * mesma query, então o número de statements não depende do número de linhas.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SolicitacaoRepositoryTest extends TesteComPostgres {
+
+    private static final int MEMBROS = 5;
+    private static final int SOLICITACOES_POR_MEMBRO = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Usuario gestor;
+    private List<Usuario> membros;
+
+    @BeforeEach
+    void criarDados() {
+        gestor = entityManager.persist(usuario("gestor", Role.GESTOR));
+        TipoAusencia ferias = entityManager.persist(TipoAusencia.builder().nome("Férias").build());
+        TipoAusencia dayOff = entityManager.persist(TipoAusencia.builder().nome("Day Off").deduzSaldo(false).build());
+
+        membros = new ArrayList<>();
+        Equipe equipe = Equipe.builder().nome("Equipe").gestor(gestor).build();
+        for (int i = 0; i < MEMBROS; i++) {
+            Usuario membro = entityManager.persist(usuario("membro" + i, Role.USER));
+            equipe.getMembros().add(membro);
+            membros.add(membro);
+
+            // Metade pendente, metade aprovada pelo gestor (LEFT JOIN do aprovador)
+            LocalDate inicio = LocalDate.now().plusMonths(1);
+            for (int j = 0; j < SOLICITACOES_POR_MEMBRO; j++) {
+                boolean aprovada = j % 2 == 1;
+                entityManager.persist(Solicitacao.builder()
+                        .usuario(membro)
+                        .tipoAusencia(j % 3 == 0 ? dayOff : ferias)
+                        .dataInicio(inicio.plusWeeks(j))
+                        .dataFim(inicio.plusWeeks(j).plusDays(2))
+                        .diasUteis(3)
+                        .status(aprovada ? StatusSolicitacao.APROVADO : StatusSolicitacao.PENDENTE)
+                        .aprovador(aprovada ? gestor : null)
+                        .dataAprovacao(aprovada ? LocalDateTime.now() : null)
+                        .build());
+            }
+        }
+        entityManager.persist(equipe);
+
+        // Nada pendente no contexto: as contagens abaixo são só das listagens
+        entityManager.flush();
+        entityManager.clear();
+        estatisticas().clear();
+    }
+
+    @Test
+    void pendentesDoGestorEmUmaUnicaQuery() {
+        List<SolicitacaoDTO> pendentes =
+                solicitacaoRepository.findDtosByGestorIdAndStatus(gestor.getId(), StatusSolicitacao.PENDENTE);
+
+        assertThat(pendentes).hasSize(MEMBROS * SOLICITACOES_POR_MEMBRO / 2);
+        assertThat(pendentes).allSatisfy(dto -> {
+            assertThat(dto.getStatus()).isEqualTo(StatusSolicitacao.PENDENTE);
+            assertThat(dto.getUsuarioNome()).isNotBlank();
+            assertThat(dto.getTipoAusenciaNome()).isNotBlank();
+        });
+        assertThat(estatisticas().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void minhasSolicitacoesEmUmaUnicaQuery() {
+        List<SolicitacaoDTO> minhas = solicitacaoRepository.findDtosByUsuarioId(membros.get(0).getId());
+
+        assertThat(minhas).hasSize(SOLICITACOES_POR_MEMBRO);
+        assertThat(minhas)
+                .filteredOn(dto -> dto.getStatus() == StatusSolicitacao.APROVADO)
+                .hasSize(SOLICITACOES_POR_MEMBRO / 2)
+                .allSatisfy(dto -> assertThat(dto.getAprovadorNome()).isEqualTo(gestor.getNomeCompleto()));
+        assertThat(estatisticas().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static Usuario usuario(String nome, Role role) {
+        return Usuario.builder()
+                .nomeCompleto("Usuário " + nome)
+                .email(nome + "@empresa.com")
+                .senhaHash("{noop}senha")
+                .isAtivo(true)
+                .role(role)
+                .build();
+    }
+}
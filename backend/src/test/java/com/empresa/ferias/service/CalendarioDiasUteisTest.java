@@ -0,0 +1,100 @@
+package com.empresa.ferias.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Contagem de dias úteis por somas prefixadas: leitura do arquivo de feriados,
+ * feriados fixos e datados, períodos que atravessam anos e região sem calendário próprio.
+ */
+class CalendarioDiasUteisTest {
+
+    private static final String FERIADOS = """
+            # data;regiao;descricao
+            01-01;;Confraternização Universal
+            12-25;;Natal
+
+            2026-04-03;;Sexta-feira Santa
+            07-09;sp;Revolução Constitucionalista
+            """;
+
+    private final CalendarioDiasUteis calendario = new CalendarioDiasUteis(arquivo(FERIADOS), 10);
+
+    @Test
+    void contaSegundaASexta() {
+        // 05/01/2026 é uma segunda-feira
+        assertThat(calendario.contar(null, LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 11))).isEqualTo(5);
+        assertThat(calendario.contar(null, LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 11))).isZero();
+        assertThat(calendario.contar(null, LocalDate.of(2026, 1, 6), LocalDate.of(2026, 1, 6))).isEqualTo(1);
+    }
+
+    @Test
+    void periodoInvertidoNaoTemDiasUteis() {
+        assertThat(calendario.contar(null, LocalDate.of(2026, 1, 9), LocalDate.of(2026, 1, 5))).isZero();
+    }
+
+    @Test
+    void feriadoFixoRepeteEDatadoValeSoNoAno() {
+        // 01/01/2026 (quinta) é feriado fixo; 02/01 conta
+        assertThat(calendario.contar(null, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2))).isEqualTo(1);
+        // 01/01/2027 cai numa sexta: também é feriado
+        assertThat(calendario.contar(null, LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 1))).isZero();
+
+        // Sexta-feira Santa só em 2026: semana de 30/03 a 05/04/2026 tem 4 dias úteis
+        assertThat(calendario.contar(null, LocalDate.of(2026, 3, 30), LocalDate.of(2026, 4, 5))).isEqualTo(4);
+        // 02/04/2027 é uma sexta comum
+        assertThat(calendario.contar(null, LocalDate.of(2027, 4, 2), LocalDate.of(2027, 4, 2))).isEqualTo(1);
+    }
+
+    @Test
+    void periodoQueAtravessaOAno() {
+        // 28 a 31/12/2026 (segunda a quinta) + 04 a 08/01/2027; 01/01/2027 é feriado
+        assertThat(calendario.contar(null, LocalDate.of(2026, 12, 28), LocalDate.of(2027, 1, 8))).isEqualTo(9);
+        // A soma por ano bate com o período inteiro
+        assertThat(calendario.contar(null, LocalDate.of(2026, 12, 1), LocalDate.of(2027, 1, 31)))
+                .isEqualTo(calendario.contar(null, LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 31))
+                        + calendario.contar(null, LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 31)));
+    }
+
+    @Test
+    void anoBissexto() {
+        // 29/02/2028 é uma terça-feira
+        assertThat(calendario.contar(null, LocalDate.of(2028, 2, 29), LocalDate.of(2028, 2, 29))).isEqualTo(1);
+        // 2028 começa num sábado: 366 dias = 52 semanas + sábado e domingo; 01/01 e 25/12 (segunda) fora
+        assertThat(calendario.contar(null, LocalDate.of(2028, 1, 1), LocalDate.of(2028, 12, 31))).isEqualTo(259);
+        // 2027 começa numa sexta: 365 dias = 52 semanas + uma sexta; 01/01 (sexta) e 25/12 (sábado)
+        assertThat(calendario.contar(null, LocalDate.of(2027, 1, 1), LocalDate.of(2027, 12, 31))).isEqualTo(260);
+    }
+
+    @Test
+    void feriadoRegionalSoParaARegiao() {
+        LocalDate revolucao = LocalDate.of(2026, 7, 9);
+
+        assertThat(calendario.contar("SP", revolucao, revolucao)).isZero();
+        // Sigla normalizada: espaços e minúsculas
+        assertThat(calendario.contar(" sp ", revolucao, revolucao)).isZero();
+        assertThat(calendario.contar(null, revolucao, revolucao)).isEqualTo(1);
+        // Região sem feriados próprios usa só os nacionais
+        assertThat(calendario.contar("RJ", revolucao, revolucao)).isEqualTo(1);
+        // A região também tem os feriados nacionais
+        assertThat(calendario.contar("SP", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2))).isEqualTo(1);
+    }
+
+    @Test
+    void dataInvalidaNoArquivoIndicaALinha() {
+        assertThatThrownBy(() -> new CalendarioDiasUteis(arquivo("01-01;;Ano Novo\n2026-13-01;;Inválido\n"), 10))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("linha 2")
+                .hasMessageContaining("2026-13-01");
+    }
+
+    private static ByteArrayResource arquivo(String conteudo) {
+        return new ByteArrayResource(conteudo.getBytes(StandardCharsets.UTF_8), "feriados de teste");
+    }
+}
@@ -0,0 +1,119 @@
+package com.empresa.ferias.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Árvore de segmentos da regra de cobertura: soma e máximo em intervalo, e a
+ * coleta dos primeiros dias que atingem o limite, conferidos contra um array simples.
+ */
+class ContagemDiariaTest {
+
+    @Test
+    void somaERemoveIntervalos() {
+        ContagemDiaria contagem = new ContagemDiaria(365);
+        contagem.somar(10, 20, 1);
+        contagem.somar(15, 30, 1);
+
+        assertThat(contagem.maximo(0, 364)).isEqualTo(2);
+        assertThat(contagem.maximo(0, 14)).isEqualTo(1);
+        assertThat(contagem.maximo(15, 20)).isEqualTo(2);
+        assertThat(contagem.maximo(21, 30)).isEqualTo(1);
+        assertThat(contagem.maximo(31, 364)).isZero();
+
+        contagem.somar(15, 30, -1);
+        assertThat(contagem.maximo(0, 364)).isEqualTo(1);
+        assertThat(contagem.maximo(21, 30)).isZero();
+
+        contagem.somar(10, 20, -1);
+        assertThat(contagem.maximo(0, 364)).isZero();
+    }
+
+    @Test
+    void diasComPeloMenosRetornaOsPrimeirosEmOrdem() {
+        ContagemDiaria contagem = new ContagemDiaria(365);
+        contagem.somar(40, 49, 1);
+        contagem.somar(42, 60, 1);
+        contagem.somar(100, 100, 2);
+
+        // Dias com 2 ausentes: 42..49 e 100
+        assertThat(contagem.diasComPeloMenos(0, 364, 2, 3)).containsExactly(42, 43, 44);
+        assertThat(contagem.diasComPeloMenos(0, 364, 2, 20))
+                .containsExactly(42, 43, 44, 45, 46, 47, 48, 49, 100);
+        // O intervalo consultado recorta o resultado
+        assertThat(contagem.diasComPeloMenos(47, 99, 2, 20)).containsExactly(47, 48, 49);
+        assertThat(contagem.diasComPeloMenos(50, 99, 2, 20)).isEmpty();
+        assertThat(contagem.diasComPeloMenos(0, 364, 3, 20)).isEmpty();
+    }
+
+    @Test
+    void anoBissextoUsaOUltimoDia() {
+        ContagemDiaria contagem = new ContagemDiaria(366);
+        contagem.somar(360, 365, 1);
+        contagem.somar(365, 365, 1);
+
+        assertThat(contagem.maximo(365, 365)).isEqualTo(2);
+        assertThat(contagem.maximo(0, 364)).isEqualTo(1);
+        assertThat(contagem.diasComPeloMenos(0, 365, 2, 5)).containsExactly(365);
+    }
+
+    @Test
+    void confereComContagemIngenua() {
+        int tamanho = 366;
+        ContagemDiaria contagem = new ContagemDiaria(tamanho);
+        int[] esperado = new int[tamanho];
+        List<int[]> somados = new ArrayList<>();
+        Random aleatorio = new Random(42);
+
+        for (int passo = 0; passo < 2000; passo++) {
+            if (!somados.isEmpty() && aleatorio.nextInt(3) == 0) {
+                // Remove um período já somado, como o cancelamento de uma solicitação
+                int[] periodo = somados.remove(aleatorio.nextInt(somados.size()));
+                contagem.somar(periodo[0], periodo[1], -1);
+                aplicar(esperado, periodo[0], periodo[1], -1);
+            } else {
+                int inicio = aleatorio.nextInt(tamanho);
+                int fim = Math.min(tamanho - 1, inicio + aleatorio.nextInt(30));
+                somados.add(new int[]{inicio, fim});
+                contagem.somar(inicio, fim, 1);
+                aplicar(esperado, inicio, fim, 1);
+            }
+
+            int de = aleatorio.nextInt(tamanho);
+            int ate = de + aleatorio.nextInt(tamanho - de);
+            int limite = 1 + aleatorio.nextInt(4);
+            assertThat(contagem.maximo(de, ate)).isEqualTo(maximo(esperado, de, ate));
+            assertThat(contagem.diasComPeloMenos(de, ate, limite, 5))
+                    .isEqualTo(diasComPeloMenos(esperado, de, ate, limite, 5));
+        }
+    }
+
+    private static void aplicar(int[] dias, int inicio, int fim, int valor) {
+        for (int i = inicio; i <= fim; i++) {
+            dias[i] += valor;
+        }
+    }
+
+    private static int maximo(int[] dias, int inicio, int fim) {
+        int maximo = Integer.MIN_VALUE;
+        for (int i = inicio; i <= fim; i++) {
+            maximo = Math.max(maximo, dias[i]);
+        }
+        return maximo;
+    }
+
+    private static List<Integer> diasComPeloMenos(int[] dias, int inicio, int fim, int limite, int quantidade) {
+        List<Integer> resultado = new ArrayList<>();
+        for (int i = inicio; i <= fim && resultado.size() < quantidade; i++) {
+            if (dias[i] >= limite) {
+                resultado.add(i);
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,143 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.TesteComPostgres;
+import com.empresa.ferias.model.EmailOutbox;
+import com.empresa.ferias.model.StatusEmail;
+import com.empresa.ferias.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox de emails contra um SMTP em memória (GreenMail): o email só existe se a
+ * transação que o enfileirou for confirmada, o worker envia em lotes e uma falha
+ * de SMTP reagenda o email com backoff em vez de perdê-lo.
+ */
+@SpringBootTest(properties = {
+        "app.email.outbox.worker-habilitado=true",
+        // O agendamento só roda na subida; os testes chamam processar() diretamente
+        "app.email.outbox.intervalo=3600000",
+        "app.email.outbox.tamanho-lote=5",
+        "app.email.outbox.max-tentativas=3",
+        "app.email.outbox.backoff-inicial=60000",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false"
+})
+class EmailOutboxWorkerTest extends TesteComPostgres {
+
+    @RegisterExtension
+    static final GreenMailExtension SMTP = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxWorker emailOutboxWorker;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void limparFila() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void enfileiraNaTransacaoSemEnviar() {
+        transactionTemplate.executeWithoutResult(status ->
+                emailService.enviarEmailConfirmacao("confirmado@empresa.com", "Confirmado", "token"));
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.enviarEmailConfirmacao("desfeito@empresa.com", "Desfeito", "token");
+            status.setRollbackOnly();
+        });
+
+        List<EmailOutbox> fila = emailOutboxRepository.findAll();
+        assertThat(fila).singleElement().satisfies(email -> {
+            assertThat(email.getDestinatario()).isEqualTo("confirmado@empresa.com");
+            assertThat(email.getStatus()).isEqualTo(StatusEmail.PENDENTE);
+            assertThat(email.getTentativas()).isZero();
+        });
+        assertThat(SMTP.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void enviaAFilaEmLotes() throws Exception {
+        // Mais de dois lotes de 5: o worker continua enquanto houver lotes cheios
+        int total = 12;
+        List<EmailOutbox> notificacoes = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            notificacoes.add(emailService.notificacaoAprovacao("usuario" + i + "@empresa.com", "Usuário " + i,
+                    "01/02/2030 a 05/02/2030", true, null));
+        }
+        emailService.enviarNotificacoes(notificacoes);
+
+        emailOutboxWorker.processar();
+
+        assertThat(SMTP.waitForIncomingEmail(5000, total)).isTrue();
+        MimeMessage[] recebidas = SMTP.getReceivedMessages();
+        assertThat(recebidas).hasSize(total);
+        assertThat(recebidas[0].getSubject()).isEqualTo("Sua solicitação de férias foi aprovada");
+        assertThat(emailOutboxRepository.findAll()).hasSize(total).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(StatusEmail.ENVIADO);
+            assertThat(email.getEnviadoEm()).isNotNull();
+        });
+    }
+
+    @Test
+    void falhaDeSmtpReagendaComBackoff() {
+        emailService.enviarNotificacaoSolicitacao("gestor@empresa.com", "Gestor", "Funcionário", "01/02/2030 a 05/02/2030");
+
+        SMTP.stop();
+        LocalDateTime antes = LocalDateTime.now();
+        emailOutboxWorker.processar();
+
+        EmailOutbox reagendado = unico();
+        assertThat(reagendado.getStatus()).isEqualTo(StatusEmail.PENDENTE);
+        assertThat(reagendado.getTentativas()).isEqualTo(1);
+        assertThat(reagendado.getUltimoErro()).isNotBlank();
+        // backoff-inicial de 60 s na primeira falha
+        assertThat(reagendado.getProximaTentativa()).isAfterOrEqualTo(antes.plusSeconds(60));
+
+        // Ainda dentro do backoff: nada é reenviado
+        SMTP.start();
+        emailOutboxWorker.processar();
+        assertThat(SMTP.getReceivedMessages()).isEmpty();
+        assertThat(unico().getTentativas()).isEqualTo(1);
+
+        // Vencido o backoff, o email sai na próxima varredura
+        reagendado.setProximaTentativa(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(reagendado);
+        emailOutboxWorker.processar();
+
+        assertThat(SMTP.waitForIncomingEmail(5000, 1)).isTrue();
+        EmailOutbox enviado = unico();
+        assertThat(enviado.getStatus()).isEqualTo(StatusEmail.ENVIADO);
+        assertThat(enviado.getTentativas()).isEqualTo(1);
+        assertThat(enviado.getUltimoErro()).isNull();
+    }
+
+    private EmailOutbox unico() {
+        List<EmailOutbox> fila = emailOutboxRepository.findAll();
+        assertThat(fila).hasSize(1);
+        return fila.get(0);
+    }
+}
@@ -0,0 +1,151 @@
+package com.empresa.ferias.service;
+
+import com.empresa.ferias.TesteComPostgres;
+import com.empresa.ferias.model.Equipe;
+import com.empresa.ferias.model.Role;
+import com.empresa.ferias.model.SaldoFerias;
+import com.empresa.ferias.model.Solicitacao;
+import com.empresa.ferias.model.StatusSolicitacao;
+import com.empresa.ferias.model.TipoAusencia;
+import com.empresa.ferias.model.Usuario;
+import com.empresa.ferias.repository.EquipeRepository;
+import com.empresa.ferias.repository.SaldoFeriasRepository;
+import com.empresa.ferias.repository.SolicitacaoRepository;
+import com.empresa.ferias.repository.TipoAusenciaRepository;
+import com.empresa.ferias.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aprovações simultâneas do mesmo saldo: o débito é um UPDATE condicional
+ * (dias_totais - dias_usados >= dias), então o saldo nunca fica negativo e as
+ * aprovações que passariam do limite são rejeitadas e desfeitas por inteiro.
+ */
+@SpringBootTest
+class SaldoFeriasConcorrenciaTest extends TesteComPostgres {
+
+    private static final int DIAS_TOTAIS = 30;
+    private static final int DIAS_POR_SOLICITACAO = 5;
+    private static final int SOLICITACOES = 10;
+
+    @Autowired
+    private SolicitacaoService solicitacaoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EquipeRepository equipeRepository;
+
+    @Autowired
+    private TipoAusenciaRepository tipoAusenciaRepository;
+
+    @Autowired
+    private SaldoFeriasRepository saldoFeriasRepository;
+
+    @Autowired
+    private SolicitacaoRepository solicitacaoRepository;
+
+    @Test
+    void aprovacoesConcorrentesNaoPassamDoSaldo() throws Exception {
+        String sufixo = Long.toString(System.nanoTime());
+        int ano = Year.now().getValue() + 1;
+
+        Usuario gestor = usuarioRepository.save(usuario("gestor" + sufixo, Role.GESTOR));
+        Usuario funcionario = usuarioRepository.save(usuario("funcionario" + sufixo, Role.USER));
+        Equipe equipe = Equipe.builder().nome("Equipe " + sufixo).gestor(gestor).build();
+        equipe.getMembros().add(funcionario);
+        equipeRepository.save(equipe);
+
+        TipoAusencia ferias = tipoAusenciaRepository.save(TipoAusencia.builder().nome("Férias " + sufixo).build());
+        saldoFeriasRepository.save(SaldoFerias.builder()
+                .usuario(funcionario)
+                .anoReferencia(ano)
+                .diasTotais(DIAS_TOTAIS)
+                .build());
+
+        // Períodos disjuntos de uma semana útil, todos no mesmo ano do saldo
+        List<Long> ids = new ArrayList<>();
+        LocalDate segunda = LocalDate.of(ano, 2, 1);
+        while (segunda.getDayOfWeek() != DayOfWeek.MONDAY) {
+            segunda = segunda.plusDays(1);
+        }
+        for (int i = 0; i < SOLICITACOES; i++) {
+            LocalDate inicio = segunda.plusWeeks(i);
+            ids.add(solicitacaoRepository.save(Solicitacao.builder()
+                    .usuario(funcionario)
+                    .tipoAusencia(ferias)
+                    .dataInicio(inicio)
+                    .dataFim(inicio.plusDays(DIAS_POR_SOLICITACAO - 1))
+                    .diasUteis(DIAS_POR_SOLICITACAO)
+                    .build()).getId());
+        }
+
+        AtomicInteger aprovadas = new AtomicInteger();
+        Queue<String> rejeicoes = new ConcurrentLinkedQueue<>();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(SOLICITACOES);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (Long id : ids) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        solicitacaoService.aprovar(id, gestor.getId());
+                        aprovadas.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejeicoes.add(e.getMessage());
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int cabem = DIAS_TOTAIS / DIAS_POR_SOLICITACAO;
+        assertThat(aprovadas.get()).isEqualTo(cabem);
+        assertThat(rejeicoes).hasSize(SOLICITACOES - cabem)
+                .allSatisfy(mensagem -> assertThat(mensagem).startsWith("Saldo insuficiente"));
+
+        SaldoFerias saldo = saldoFeriasRepository.findByUsuarioIdAndAnoReferencia(funcionario.getId(), ano).orElseThrow();
+        assertThat(saldo.getDiasUsados()).isEqualTo(DIAS_TOTAIS);
+
+        // As rejeitadas voltaram atrás por inteiro: continuam pendentes
+        List<Solicitacao> solicitacoes = solicitacaoRepository.findAllById(ids);
+        assertThat(solicitacoes).filteredOn(s -> s.getStatus() == StatusSolicitacao.APROVADO).hasSize(cabem);
+        assertThat(solicitacoes).filteredOn(s -> s.getStatus() == StatusSolicitacao.PENDENTE)
+                .hasSize(SOLICITACOES - cabem);
+    }
+
+    private static Usuario usuario(String nome, Role role) {
+        return Usuario.builder()
+                .nomeCompleto("Usuário " + nome)
+                .email(nome + "@empresa.com")
+                .senhaHash("{noop}senha")
+                .isAtivo(true)
+                .role(role)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+// Cliente SSE via fetch: EventSource não permite enviar o header Authorization
+export function conectarSse(caminho, aoReceber, { aoConectar } = {}) {
+  const controller = new AbortController()
+  let ativo = true
+
+  async function conectar() {
+    while (ativo) {
+      try {
+        const response = await fetch(`/api${caminho}`, {
+          headers: {
+            Accept: 'text/event-stream',
+            Authorization: `Bearer ${localStorage.getItem('token')}`
+          },
+          signal: controller.signal
+        })
+        if (!response.ok) {
+          if (response.status === 401 || response.status === 403) return
+          throw new Error(`SSE ${response.status}`)
+        }
+
+        aoConectar?.()
+        await ler(response.body, aoReceber)
+      } catch (e) {
+        if (!ativo) return
+      }
+      // Reconecta após queda ou timeout do servidor
+      await new Promise(resolve => setTimeout(resolve, 3000))
+    }
+  }
+
+  conectar()
+
+  return () => {
+    ativo = false
+    controller.abort()
+  }
+}
+
+async function ler(body, aoReceber) {
+  const reader = body.pipeThrough(new TextDecoderStream()).getReader()
+  let buffer = ''
+
+  while (true) {
+    const { value, done } = await reader.read()
+    if (done) return
+    buffer += value
+
+    let fim
+    while ((fim = buffer.indexOf('\n\n')) !== -1) {
+      const bloco = buffer.slice(0, fim)
+      buffer = buffer.slice(fim + 2)
+
+      let evento = 'message'
+      const dados = []
+      for (const linha of bloco.split('\n')) {
+        if (linha.startsWith('event:')) evento = linha.slice(6).trim()
+        else if (linha.startsWith('data:')) dados.push(linha.slice(5).replace(/^ /, ''))
+      }
+      if (dados.length) aoReceber(evento, dados.join('\n'))
+    }
+  }
+}
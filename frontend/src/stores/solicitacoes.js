@@ -1,6 +1,7 @@
 import { defineStore } from 'pinia'
 import { ref } from 'vue'
 import api from '@/api/axios'
+import { conectarSse } from '@/api/sse'
 
 export const useSolicitacoesStore = defineStore('solicitacoes', () => {
   const minhasSolicitacoes = ref([])
@@ -29,6 +30,8 @@ export const useSolicitacoesStore = defineStore('solicitacoes', () => {
       const response = await api.get(`/usuarios/me/saldo/${ano}`)
       saldo.value = response.data
     } catch (e) {
+      // Ano sem saldo: não manter o saldo de outro ano na tela
+      saldo.value = null
       console.error('Erro ao carregar saldo:', e)
     }
   }
@@ -42,6 +45,12 @@ export const useSolicitacoesStore = defineStore('solicitacoes', () => {
     }
   }
 
+  // Dias úteis do período pelo calendário de feriados da região do usuário
+  async function contarDiasUteis(inicio, fim) {
+    const response = await api.get('/solicitacoes/dias-uteis', { params: { inicio, fim } })
+    return response.data.diasUteis
+  }
+
   async function criarSolicitacao(dados) {
     loading.value = true
     error.value = null
@@ -93,6 +102,24 @@ export const useSolicitacoesStore = defineStore('solicitacoes', () => {
     }
   }
 
+  // Recebe as mudanças por SSE; recarrega a lista só ao (re)conectar ou em resync
+  function assinarPendentes() {
+    return conectarSse('/solicitacoes/equipe/pendentes/eventos', (evento, dados) => {
+      if (evento === 'resync') {
+        carregarPendentes()
+      } else if (evento === 'solicitacao') {
+        const { tipo, solicitacao } = JSON.parse(dados)
+        if (tipo === 'CRIADA') {
+          if (!solicitacoesPendentes.value.some(s => s.id === solicitacao.id)) {
+            solicitacoesPendentes.value.push(solicitacao)
+          }
+        } else {
+          atualizarSolicitacao(solicitacao)
+        }
+      }
+    }, { aoConectar: carregarPendentes })
+  }
+
   async function aprovarSolicitacao(id) {
     try {
       const response = await api.post(`/solicitacoes/${id}/aprovar`)
@@ -138,10 +165,12 @@ export const useSolicitacoesStore = defineStore('solicitacoes', () => {
     carregarMinhasSolicitacoes,
     carregarSaldo,
     carregarTiposAusencia,
+    contarDiasUteis,
     criarSolicitacao,
     cancelarSolicitacao,
     carregarSolicitacoesEquipe,
     carregarPendentes,
+    assinarPendentes,
     aprovarSolicitacao,
     rejeitarSolicitacao
   }